@@ -0,0 +1,104 @@
+package com.workshop.management;
+
+import com.workshop.management.entity.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entity graphs shaped like the rows the services map in production.
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private BenchmarkData() {
+    }
+
+    public static WorkOrder workOrder(long id, int lineItems) {
+        Customer customer = Customer.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane.doe" + id + "@example.com")
+                .phone("555-0100")
+                .build();
+        customer.setId(id);
+
+        Vehicle vehicle = Vehicle.builder()
+                .make("Toyota")
+                .model("Camry")
+                .year(2019)
+                .licensePlate("ABC" + id)
+                .customer(customer)
+                .build();
+        vehicle.setId(id);
+
+        User mechanic = User.builder()
+                .username("mechanic")
+                .fullName("Mike Mechanic")
+                .email("mechanic@example.com")
+                .role(Role.MECHANIC)
+                .build();
+        mechanic.setId(1L);
+
+        WorkOrder workOrder = WorkOrder.builder()
+                .orderNumber(String.format("WO-2024-%06d", id))
+                .vehicle(vehicle)
+                .assignedMechanic(mechanic)
+                .status(WorkOrderStatus.IN_PROGRESS)
+                .description("Brake pads squealing, check front rotors")
+                .customerConcerns("Noise when braking at low speed")
+                .scheduledDate(CREATED_AT.plusDays(1))
+                .startedAt(CREATED_AT.plusDays(1).plusHours(1))
+                .estimatedMinutes(120)
+                .laborCost(new BigDecimal("150.00"))
+                .partsCost(new BigDecimal("89.99"))
+                .build();
+        workOrder.setId(id);
+        workOrder.setCreatedAt(CREATED_AT);
+
+        for (int i = 0; i < lineItems; i++) {
+            workOrder.addService(lineItem(id * 100 + i, i));
+        }
+        workOrder.recalculateTotals();
+        return workOrder;
+    }
+
+    public static List<WorkOrder> workOrders(int count, int lineItems) {
+        List<WorkOrder> workOrders = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            workOrders.add(workOrder(i, lineItems));
+        }
+        return workOrders;
+    }
+
+    public static Invoice invoice(WorkOrder workOrder) {
+        Invoice invoice = Invoice.builder()
+                .invoiceNumber(workOrder.getOrderNumber().replace("WO", "INV"))
+                .workOrder(workOrder)
+                .build();
+        invoice.setId(workOrder.getId());
+        invoice.calculateTotals();
+        invoice.setDefaultDates();
+        return invoice;
+    }
+
+    public static WorkOrderService lineItem(long id, int index) {
+        ServiceItem serviceItem = ServiceItem.builder()
+                .name("Service " + index)
+                .basePrice(new BigDecimal("49.95"))
+                .category(ServiceCategory.BRAKES)
+                .build();
+        serviceItem.setId((long) index + 1);
+
+        WorkOrderService line = WorkOrderService.builder()
+                .serviceItem(serviceItem)
+                .price(new BigDecimal("49.95"))
+                .quantity(1)
+                .build();
+        line.setId(id);
+        return line;
+    }
+}
@@ -0,0 +1,63 @@
+package com.workshop.management.entity;
+
+import com.workshop.management.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TotalsBenchmark {
+
+    private static final BigDecimal PAYMENT = new BigDecimal("25.00");
+
+    @Param({"5", "20"})
+    private int lineItems;
+
+    private WorkOrder workOrder;
+    private WorkOrderService lineItem;
+    private Invoice invoice;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        workOrder = BenchmarkData.workOrder(42, lineItems);
+        lineItem = workOrder.getServices().get(0);
+        invoice = BenchmarkData.invoice(workOrder);
+    }
+
+    @Benchmark
+    public BigDecimal readTotalCost() {
+        return workOrder.getTotalCost();
+    }
+
+    @Benchmark
+    public BigDecimal repriceLineItem() {
+        workOrder.repriceService(lineItem, lineItem.getPrice().add(BigDecimal.ONE));
+        return workOrder.getTotalCost();
+    }
+
+    @Benchmark
+    public BigDecimal recalculateTotals() {
+        workOrder.recalculateTotals();
+        return workOrder.getTotalCost();
+    }
+
+    @Benchmark
+    public BigDecimal calculateInvoiceTotals() {
+        invoice.calculateTotals();
+        return invoice.getTotalAmount();
+    }
+
+    @Benchmark
+    public InvoiceStatus recordPayment() {
+        invoice.setPaidAmount(BigDecimal.ZERO);
+        invoice.setStatus(InvoiceStatus.SENT);
+        invoice.recordPayment(PAYMENT);
+        return invoice.getStatus();
+    }
+}
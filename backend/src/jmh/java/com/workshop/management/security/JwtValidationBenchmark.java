@@ -0,0 +1,48 @@
+package com.workshop.management.security;
+
+import com.workshop.management.entity.Role;
+import com.workshop.management.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString(
+                "benchmark-secret-key-that-is-at-least-256-bits-long".getBytes());
+        tokenProvider = new JwtTokenProvider(secret, 3_600_000);
+
+        User user = User.builder()
+                .username("admin")
+                .fullName("Admin User")
+                .email("admin@example.com")
+                .role(Role.ADMIN)
+                .build();
+        user.setId(1L);
+        validToken = tokenProvider.generateToken(user);
+        tamperedToken = validToken.substring(0, validToken.length() - 2) + "xx";
+    }
+
+    @Benchmark
+    public boolean validToken() {
+        return tokenProvider.validateToken(validToken);
+    }
+
+    @Benchmark
+    public boolean tamperedToken() {
+        return tokenProvider.validateToken(tamperedToken);
+    }
+}
@@ -0,0 +1,60 @@
+package com.workshop.management.service;
+
+import com.workshop.management.BenchmarkData;
+import com.workshop.management.dto.InvoiceDTO;
+import com.workshop.management.dto.WorkOrderDTO;
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.entity.WorkOrderStatus;
+import com.workshop.management.exception.BadRequestException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"0", "5", "20"})
+    private int lineItems;
+
+    private WorkOrder workOrder;
+    private Invoice invoice;
+
+    @Setup
+    public void setUp() {
+        workOrder = BenchmarkData.workOrder(42, lineItems);
+        invoice = BenchmarkData.invoice(workOrder);
+    }
+
+    @Benchmark
+    public WorkOrderDTO workOrderToDTO() {
+        return WorkOrderService.toDTO(workOrder, workOrder.getServices());
+    }
+
+    @Benchmark
+    public InvoiceDTO invoiceToDTO() {
+        return InvoiceService.toDTO(invoice);
+    }
+
+    @Benchmark
+    public void allowedTransitions() {
+        WorkOrderService.validateStatusTransition(WorkOrderStatus.PENDING, WorkOrderStatus.SCHEDULED);
+        WorkOrderService.validateStatusTransition(WorkOrderStatus.IN_PROGRESS, WorkOrderStatus.COMPLETED);
+        WorkOrderService.validateStatusTransition(WorkOrderStatus.WAITING_FOR_PARTS, WorkOrderStatus.PENDING);
+    }
+
+    @Benchmark
+    public BadRequestException rejectedTransition() {
+        try {
+            WorkOrderService.validateStatusTransition(WorkOrderStatus.PENDING, WorkOrderStatus.COMPLETED);
+            return null;
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.workshop.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workshop.management.BenchmarkData;
+import com.workshop.management.dto.WorkOrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Serializes a work order page with the same Jackson defaults Spring Boot applies
+ * to the HTTP message converters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "50", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<WorkOrderDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<WorkOrderDTO> content = BenchmarkData.workOrders(pageSize, 3).stream()
+                .map(wo -> WorkOrderService.toDTO(wo, wo.getServices()))
+                .collect(Collectors.toList());
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 2_500);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+}
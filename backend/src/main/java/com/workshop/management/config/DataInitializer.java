@@ -2,6 +2,7 @@ package com.workshop.management.config;
 
 import com.workshop.management.entity.*;
 import com.workshop.management.repository.*;
+import com.workshop.management.service.RevenueRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -20,8 +21,15 @@ public class DataInitializer {
     @Bean
     @Profile("!test")
     public CommandLineRunner initData(UserRepository userRepository,
-            ServiceItemRepository serviceItemRepository) {
+            ServiceItemRepository serviceItemRepository,
+            WorkOrderRepository workOrderRepository,
+            RevenueRollupService revenueRollupService) {
         return args -> {
+            // Fill persisted totals for work orders created before they were stored
+            workOrderRepository.backfillTotals();
+            // Populate revenue rollups on the first start after they were added
+            revenueRollupService.rebuildIfEmpty();
+
             // Create default admin user if not exists
             if (!userRepository.existsByUsername("admin")) {
                 User admin = User.builder()
@@ -0,0 +1,124 @@
+package com.workshop.management.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to streaming replicas. Replaces the auto-configured
+ * pool with a primary pool from the usual {@code spring.datasource} settings, one
+ * pool per replica URL, and a routing data source in front of them that the rest
+ * of the application sees as its only {@link DataSource}. Transactions that may
+ * read from a replica do not fill the second-level cache
+ * ({@link ReplicaAwareTransactionManager}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username}") String username,
+            @Value("${datasource.replicas.password}") String password,
+            @Value("${datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${datasource.replicas.max-lag:5s}") Duration maxLag) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setDriverClassName(primaryDataSource.getDriverClassName());
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            // A replica that is down at startup must not stop the application
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+        routingDataSource.checkReplicas();
+        Gauge.builder("datasource.replicas.usable", routingDataSource, ReplicaRoutingDataSource::usableReplicas)
+                .register(meterRegistry);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(ReplicaRoutingDataSource replicaRoutingDataSource,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        ReplicaAwareTransactionManager transactionManager = new ReplicaAwareTransactionManager(replicaRoutingDataSource);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${datasource.replicas.primary-after-write:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // Reads fall back to the primary, so a lost replica does not make the application unhealthy
+        return () -> Health.up().withDetails(replicaRoutingDataSource.describeReplicas()).build();
+    }
+
+    @Scheduled(initialDelayString = "${datasource.replicas.health-check-interval:PT5S}",
+            fixedDelayString = "${datasource.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+}
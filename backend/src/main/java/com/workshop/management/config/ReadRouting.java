@@ -0,0 +1,61 @@
+package com.workshop.management.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that keeps read-only transactions on the primary, for
+ * clients that have just written and for jobs that must not see replica lag.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    public static void pinToPrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY.remove();
+    }
+
+    /**
+     * Runs {@code work} with every read on the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean pinned = isPinnedToPrimary();
+        pinToPrimary();
+        try {
+            return work.get();
+        } finally {
+            if (!pinned) {
+                clear();
+            }
+        }
+    }
+
+    /**
+     * Carries the caller's routing over to a task that runs on another thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        boolean pinned = isPinnedToPrimary();
+        return () -> {
+            if (!pinned) {
+                task.run();
+                return;
+            }
+            pinToPrimary();
+            try {
+                task.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
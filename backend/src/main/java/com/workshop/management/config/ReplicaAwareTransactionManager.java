@@ -0,0 +1,57 @@
+package com.workshop.management.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps rows read from a replica out of Hibernate's second-level cache. Transactions
+ * that may run on a replica still read cached entities but never store them.
+ * Otherwise a lagging replica could re-cache a row the primary has already changed,
+ * and keep it there for the region's TTL instead of the replica's lag.
+ *
+ * <p>This does not cover the query cache: Hibernate 6.4 stores a query result on a
+ * cache miss even when puts are disabled. Cacheable queries are therefore run on
+ * the primary by their callers ({@link ReadRouting#onPrimary}).
+ */
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReplicaAwareTransactionManager(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        // The connection is fetched lazily, so decide from the same inputs the routing will use
+        if (routingDataSource.mayUseReplica(definition.isReadOnly())) {
+            setStoreMode(CacheStoreMode.BYPASS);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        // Restores an entity manager that outlives the transaction
+        setStoreMode(CacheStoreMode.USE);
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private void setStoreMode(CacheStoreMode storeMode) {
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder == null) {
+            return;
+        }
+        EntityManager entityManager = holder.getEntityManager();
+        if (entityManager.isOpen()) {
+            // find() derives its cache mode from this property, so setCacheMode alone is not enough
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, storeMode);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.workshop.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else. Replicas that fail a health check, fall
+ * further behind than {@code maxLag}, or refuse a connection are skipped until
+ * the next successful check; with no usable replica, reads go to the primary.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}, so that the
+ * connection is only fetched once the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // Zero on a primary or a replica that has replayed everything it received
+    private static final String LAG_SECONDS = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = nextReplica();
+            if (replica == null) {
+                break;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probes every replica and updates whether reads may use it.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+                try (ResultSet rs = statement.executeQuery(LAG_SECONDS)) {
+                    rs.next();
+                    replica.lag = Duration.ofMillis(Math.round(rs.getDouble(1) * 1000));
+                }
+                if (replica.lag.compareTo(maxLag) > 0) {
+                    replica.markDown("replication lag " + replica.lag + " exceeds " + maxLag);
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    public long usableReplicas() {
+        return replicas.stream().filter(replica -> replica.usable).count();
+    }
+
+    /**
+     * State of each replica, keyed by pool name, for the health endpoint.
+     */
+    public Map<String, Object> describeReplicas() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("url", replica.dataSource.getJdbcUrl());
+            state.put("usable", replica.usable);
+            state.put("lag", replica.lag.toString());
+            if (replica.lastError != null) {
+                state.put("lastError", replica.lastError);
+            }
+            details.put(replica.dataSource.getPoolName(), state);
+        }
+        return details;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * Whether a transaction with this read-only flag, begun on the current thread,
+     * may be served by a replica.
+     */
+    public boolean mayUseReplica(boolean readOnly) {
+        return readOnly && !replicas.isEmpty() && !ReadRouting.isPinnedToPrimary();
+    }
+
+    private boolean routeToReplica() {
+        return mayUseReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private Replica nextReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        // Unused until the first health check has passed
+        private volatile boolean usable;
+        private volatile Duration lag = Duration.ZERO;
+        private volatile String lastError;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markUp() {
+            if (!usable) {
+                log.info("Read replica {} is available", dataSource.getPoolName());
+            }
+            usable = true;
+            lastError = null;
+        }
+
+        void markDown(String reason) {
+            if (usable || lastError == null) {
+                log.warn("Read replica {} is unavailable, reading from the primary: {}",
+                        dataSource.getPoolName(), reason);
+            }
+            usable = false;
+            lastError = reason;
+        }
+    }
+}
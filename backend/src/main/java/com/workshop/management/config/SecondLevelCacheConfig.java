@@ -0,0 +1,89 @@
+package com.workshop.management.config;
+
+import com.workshop.management.entity.ServiceItem;
+import com.workshop.management.entity.User;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Local, size-bounded Ehcache regions behind Hibernate's second-level and query
+ * caches. Entries expire after the configured TTL, which also bounds how long
+ * another instance's writes can go unseen: a user disabled elsewhere is still
+ * authenticated here until the verified token ({@code jwt.cache.ttl}) and then the
+ * cached auth state ({@code second-level-cache.auth-state.ttl}) expire.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REGIONS = List.of(
+            User.CACHE_REGION,
+            User.AUTH_STATE_CACHE_REGION,
+            ServiceItem.CACHE_REGION,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+            RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${second-level-cache.users.ttl:PT10M}") Duration usersTtl,
+            @Value("${second-level-cache.users.max-entries:1000}") long usersMaxEntries,
+            @Value("${second-level-cache.auth-state.ttl:PT30S}") Duration authStateTtl,
+            @Value("${second-level-cache.service-items.ttl:PT1H}") Duration serviceItemsTtl,
+            @Value("${second-level-cache.service-items.max-entries:1000}") long serviceItemsMaxEntries,
+            @Value("${second-level-cache.query-results.ttl:PT5M}") Duration queryResultsTtl,
+            @Value("${second-level-cache.query-results.max-entries:5000}") long queryResultsMaxEntries) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // A manager of its own, so that another application context in this JVM cannot replace or close its regions
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:workshop:hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+
+        createRegion(cacheManager, User.CACHE_REGION, usersMaxEntries, usersTtl);
+        createRegion(cacheManager, User.AUTH_STATE_CACHE_REGION, usersMaxEntries, authStateTtl);
+        createRegion(cacheManager, ServiceItem.CACHE_REGION, serviceItemsMaxEntries, serviceItemsTtl);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                queryResultsMaxEntries, queryResultsTtl);
+        // One entry per table; timestamps must never expire or cached queries could go stale
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 10_000, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region)));
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxEntries, Duration ttl) {
+        CacheConfigurationBuilder<Object, Object> config = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ttl != null
+                        ? ExpiryPolicyBuilder.timeToLiveExpiration(ttl)
+                        : ExpiryPolicyBuilder.noExpiration());
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(config));
+        cacheManager.enableStatistics(name, true);
+    }
+}
@@ -1,7 +1,10 @@
 package com.workshop.management.controller;
 
+import com.workshop.management.dto.CursorPage;
 import com.workshop.management.dto.CustomerDTO;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.service.CustomerService;
+import com.workshop.management.service.ResourceVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -23,22 +27,34 @@ import org.springframework.web.bind.annotation.*;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final ResourceVersionService resourceVersionService;
 
     @GetMapping
     @Operation(summary = "Get all customers with pagination")
     public ResponseEntity<Page<CustomerDTO>> getAllCustomers(
             @RequestParam(required = false) String search,
-            @PageableDefault(size = 10) Pageable pageable) {
-        if (search != null && !search.isEmpty()) {
-            return ResponseEntity.ok(customerService.searchCustomers(search, pageable));
-        }
-        return ResponseEntity.ok(customerService.getAllCustomers(pageable));
+            @PageableDefault(size = 10) Pageable pageable,
+            WebRequest request) {
+        return resourceVersionService.conditionalGet(request, resourceVersionService::customersETag,
+                () -> search != null && !search.isEmpty()
+                        ? customerService.searchCustomers(search, pageable)
+                        : customerService.getAllCustomers(pageable));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get customers using cursor pagination, newest first")
+    public ResponseEntity<CursorPage<CustomerDTO>> getCustomersByCursor(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(customerService.getCustomersPage(
+                KeysetCursor.decode(cursor), KeysetCursor.clampSize(size)));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID")
-    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
-        return ResponseEntity.ok(customerService.getCustomerById(id));
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id, WebRequest request) {
+        return resourceVersionService.conditionalGet(request, () -> resourceVersionService.customerETag(id),
+                () -> customerService.getCustomerById(id));
     }
 
     @PostMapping
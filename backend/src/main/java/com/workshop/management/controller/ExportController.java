@@ -0,0 +1,74 @@
+package com.workshop.management.controller;
+
+import com.workshop.management.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "Full data export endpoints")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/workorders")
+    @Operation(summary = "Stream all work orders as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportWorkOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream("workorders", ExportService.Format.parse(format), acceptEncoding, exportService::exportWorkOrders);
+    }
+
+    @GetMapping("/invoices")
+    @Operation(summary = "Stream all invoices as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream("invoices", ExportService.Format.parse(format), acceptEncoding, exportService::exportInvoices);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportService.Format format,
+            String acceptEncoding, BiConsumer<ExportService.Format, OutputStream> exporter) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        String filename = name + "-" + LocalDate.now() + "." + format.getExtension();
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                exporter.accept(format, compressed);
+                compressed.finish();
+            } else {
+                exporter.accept(format, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("X-Accel-Buffering", "no");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,49 @@
+package com.workshop.management.controller;
+
+import com.workshop.management.dto.ImportJobDTO;
+import com.workshop.management.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+@Tag(name = "Import", description = "Bulk CSV import endpoints")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportController {
+
+    private static final String CSV = "text/csv";
+
+    private final ImportService importService;
+
+    @PostMapping(value = "/customers", consumes = { CSV, MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    @Operation(summary = "Import customers from a CSV body; pass jobId to resume an interrupted import")
+    public ResponseEntity<ImportJobDTO> importCustomers(InputStream body,
+            @RequestParam(required = false) Long jobId) {
+        return ResponseEntity.ok(importService.importCustomers(body, jobId));
+    }
+
+    @PostMapping(value = "/vehicles", consumes = { CSV, MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    @Operation(summary = "Import vehicles from a CSV body; pass jobId to resume an interrupted import")
+    public ResponseEntity<ImportJobDTO> importVehicles(InputStream body,
+            @RequestParam(required = false) Long jobId) {
+        return ResponseEntity.ok(importService.importVehicles(body, jobId));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Get the progress and row errors of an import")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable Long id) {
+        return ResponseEntity.ok(importService.getJob(id));
+    }
+}
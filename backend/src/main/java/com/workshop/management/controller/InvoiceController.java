@@ -1,8 +1,11 @@
 package com.workshop.management.controller;
 
+import com.workshop.management.dto.CursorPage;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.dto.InvoiceDTO;
 import com.workshop.management.entity.InvoiceStatus;
 import com.workshop.management.service.InvoiceService;
+import com.workshop.management.service.ResourceVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -38,6 +42,16 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getAllInvoices(pageable));
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get invoices using cursor pagination, newest first")
+    public ResponseEntity<CursorPage<InvoiceDTO>> getInvoicesByCursor(
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(invoiceService.getInvoicesPage(
+                status, KeysetCursor.decode(cursor), KeysetCursor.clampSize(size)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get invoice by ID")
     public ResponseEntity<InvoiceDTO> getInvoiceById(@PathVariable Long id) {
@@ -60,8 +74,10 @@ public class InvoiceController {
     @Operation(summary = "Update an invoice")
     public ResponseEntity<InvoiceDTO> updateInvoice(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody InvoiceDTO invoiceDTO) {
-        return ResponseEntity.ok(invoiceService.updateInvoice(id, invoiceDTO));
+        Long expectedVersion = ResourceVersionService.expectedVersion(ifMatch, invoiceDTO.getVersion());
+        return ResponseEntity.ok(invoiceService.updateInvoice(id, invoiceDTO, expectedVersion));
     }
 
     @PostMapping("/{id}/send")
@@ -74,8 +90,10 @@ public class InvoiceController {
     @Operation(summary = "Record a payment for an invoice")
     public ResponseEntity<InvoiceDTO> recordPayment(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Map<String, BigDecimal> paymentRequest) {
         BigDecimal amount = paymentRequest.get("amount");
-        return ResponseEntity.ok(invoiceService.recordPayment(id, amount));
+        return ResponseEntity.ok(invoiceService.recordPayment(
+                id, amount, ResourceVersionService.expectedVersion(ifMatch, null)));
     }
 }
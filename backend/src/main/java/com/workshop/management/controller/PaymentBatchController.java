@@ -0,0 +1,42 @@
+package com.workshop.management.controller;
+
+import com.workshop.management.dto.PaymentBatchResultDTO;
+import com.workshop.management.dto.PaymentLineDTO;
+import com.workshop.management.service.PaymentBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/invoices/payments")
+@RequiredArgsConstructor
+@Tag(name = "Payment Batches", description = "Settlement file ingest endpoints")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+public class PaymentBatchController {
+
+    private static final String CSV = "text/csv";
+
+    private final PaymentBatchService paymentBatchService;
+
+    @PostMapping(value = "/batch", consumes = { CSV, MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    @Operation(summary = "Apply payments from a CSV with invoice_number, amount and reference columns")
+    public ResponseEntity<PaymentBatchResultDTO> applyCsv(InputStream body) {
+        return ResponseEntity.ok(paymentBatchService.applyCsv(body));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Apply an array of payments; lines whose reference was already recorded are skipped")
+    public ResponseEntity<PaymentBatchResultDTO> apply(@RequestBody List<PaymentLineDTO> lines) {
+        return ResponseEntity.ok(paymentBatchService.apply(lines));
+    }
+}
@@ -0,0 +1,40 @@
+package com.workshop.management.controller;
+
+import com.workshop.management.dto.RevenueReportDTO;
+import com.workshop.management.service.RevenueRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "Revenue reporting endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportController {
+
+    private final RevenueRollupService revenueRollupService;
+
+    @GetMapping("/revenue")
+    @Operation(summary = "Get revenue, payments and billing breakdowns for a date range")
+    public ResponseEntity<RevenueReportDTO> getRevenueReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(revenueRollupService.getRevenueReport(from, to));
+    }
+
+    @PostMapping("/revenue/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the revenue rollups from invoices")
+    public ResponseEntity<Void> rebuildRevenueRollups() {
+        revenueRollupService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.workshop.management.controller;
+
+import com.workshop.management.dto.ScheduleSlotDTO;
+import com.workshop.management.service.SchedulingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/schedule")
+@RequiredArgsConstructor
+@Tag(name = "Schedule", description = "Mechanic availability endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class ScheduleController {
+
+    private final SchedulingService schedulingService;
+
+    @GetMapping("/slots")
+    @Operation(summary = "Get the next free mechanic slots for a job of the given length")
+    public ResponseEntity<List<ScheduleSlotDTO>> getFreeSlots(
+            @RequestParam(defaultValue = "60") int durationMinutes,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) Long mechanicId) {
+        return ResponseEntity.ok(schedulingService.findFreeSlots(durationMinutes, count, from, mechanicId));
+    }
+}
@@ -2,16 +2,19 @@ package com.workshop.management.controller;
 
 import com.workshop.management.dto.ServiceItemDTO;
 import com.workshop.management.entity.ServiceCategory;
+import com.workshop.management.service.ServiceCatalog;
 import com.workshop.management.service.ServiceItemService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,21 +29,25 @@ public class ServiceItemController {
 
     @GetMapping
     @Operation(summary = "Get all active services")
-    public ResponseEntity<List<ServiceItemDTO>> getAllActiveServices() {
-        return ResponseEntity.ok(serviceItemService.getAllActiveServices());
+    public ResponseEntity<List<ServiceItemDTO>> getAllActiveServices(WebRequest request) {
+        ServiceCatalog.Snapshot catalog = serviceItemService.getCatalog();
+        return withETag(catalog, request, catalog.active());
     }
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all services including inactive (Admin only)")
-    public ResponseEntity<List<ServiceItemDTO>> getAllServices() {
-        return ResponseEntity.ok(serviceItemService.getAllServices());
+    public ResponseEntity<List<ServiceItemDTO>> getAllServices(WebRequest request) {
+        ServiceCatalog.Snapshot catalog = serviceItemService.getCatalog();
+        return withETag(catalog, request, catalog.all());
     }
 
     @GetMapping("/category/{category}")
     @Operation(summary = "Get services by category")
-    public ResponseEntity<List<ServiceItemDTO>> getServicesByCategory(@PathVariable ServiceCategory category) {
-        return ResponseEntity.ok(serviceItemService.getServicesByCategory(category));
+    public ResponseEntity<List<ServiceItemDTO>> getServicesByCategory(@PathVariable ServiceCategory category,
+            WebRequest request) {
+        ServiceCatalog.Snapshot catalog = serviceItemService.getCatalog();
+        return withETag(catalog, request, catalog.active(category));
     }
 
     @GetMapping("/{id}")
@@ -72,4 +79,17 @@ public class ServiceItemController {
         serviceItemService.deleteService(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Answers 304 when the client already holds this catalog version.
+     */
+    private static <T> ResponseEntity<T> withETag(ServiceCatalog.Snapshot catalog, WebRequest request, T body) {
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
 }
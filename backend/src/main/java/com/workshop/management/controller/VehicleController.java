@@ -1,5 +1,7 @@
 package com.workshop.management.controller;
 
+import com.workshop.management.dto.CursorPage;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.dto.VehicleDTO;
 import com.workshop.management.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -37,6 +39,15 @@ public class VehicleController {
         return ResponseEntity.ok(vehicleService.getAllVehicles(pageable));
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get vehicles using cursor pagination, newest first")
+    public ResponseEntity<CursorPage<VehicleDTO>> getVehiclesByCursor(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(vehicleService.getVehiclesPage(
+                KeysetCursor.decode(cursor), KeysetCursor.clampSize(size)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get vehicle by ID")
     public ResponseEntity<VehicleDTO> getVehicleById(@PathVariable Long id) {
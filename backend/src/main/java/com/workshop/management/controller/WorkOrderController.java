@@ -1,8 +1,13 @@
 package com.workshop.management.controller;
 
+import com.workshop.management.dto.BulkWorkOrderResponse;
+import com.workshop.management.dto.CursorPage;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.dto.WorkOrderDTO;
 import com.workshop.management.dto.WorkOrderServiceDTO;
 import com.workshop.management.entity.WorkOrderStatus;
+import com.workshop.management.service.ResourceVersionService;
+import com.workshop.management.service.WorkOrderBoardBroadcaster;
 import com.workshop.management.service.WorkOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -12,10 +17,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -27,22 +39,47 @@ import java.util.Map;
 public class WorkOrderController {
 
     private final WorkOrderService workOrderService;
+    private final WorkOrderBoardBroadcaster boardBroadcaster;
+    private final ResourceVersionService resourceVersionService;
 
     @GetMapping
     @Operation(summary = "Get all work orders with pagination")
     public ResponseEntity<Page<WorkOrderDTO>> getAllWorkOrders(
             @RequestParam(required = false) WorkOrderStatus status,
-            @PageableDefault(size = 10) Pageable pageable) {
-        if (status != null) {
-            return ResponseEntity.ok(workOrderService.getWorkOrdersByStatus(status, pageable));
-        }
-        return ResponseEntity.ok(workOrderService.getAllWorkOrders(pageable));
+            @PageableDefault(size = 10) Pageable pageable,
+            WebRequest request) {
+        return resourceVersionService.conditionalGet(request, resourceVersionService::workOrdersETag,
+                () -> status != null
+                        ? workOrderService.getWorkOrdersByStatus(status, pageable)
+                        : workOrderService.getAllWorkOrders(pageable));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get work orders using cursor pagination, newest first")
+    public ResponseEntity<CursorPage<WorkOrderDTO>> getWorkOrdersByCursor(
+            @RequestParam(required = false) WorkOrderStatus status,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(workOrderService.getWorkOrdersPage(
+                status, KeysetCursor.decode(cursor), KeysetCursor.clampSize(size)));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream work order changes as Server-Sent Events")
+    public ResponseEntity<SseEmitter> streamWorkOrders(
+            @RequestParam(required = false) List<WorkOrderStatus> status,
+            @RequestParam(required = false) Long mechanicId) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no")
+                .body(boardBroadcaster.subscribe(status, mechanicId));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get work order by ID")
-    public ResponseEntity<WorkOrderDTO> getWorkOrderById(@PathVariable Long id) {
-        return ResponseEntity.ok(workOrderService.getWorkOrderById(id));
+    public ResponseEntity<WorkOrderDTO> getWorkOrderById(@PathVariable Long id, WebRequest request) {
+        return resourceVersionService.conditionalGet(request, () -> resourceVersionService.workOrderETag(id),
+                () -> workOrderService.getWorkOrderById(id));
     }
 
     @GetMapping("/recent")
@@ -65,21 +102,41 @@ public class WorkOrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(workOrderService.createWorkOrder(workOrderDTO));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create many work orders in one request")
+    public ResponseEntity<BulkWorkOrderResponse> createWorkOrders(
+            @RequestBody List<WorkOrderDTO> workOrderDTOs) {
+        return ResponseEntity.ok(workOrderService.createWorkOrders(workOrderDTOs));
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing work order")
+    @Operation(summary = "Update an existing work order",
+            description = "Applies only to the version in If-Match, or in the body when If-Match is absent")
     public ResponseEntity<WorkOrderDTO> updateWorkOrder(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody WorkOrderDTO workOrderDTO) {
-        return ResponseEntity.ok(workOrderService.updateWorkOrder(id, workOrderDTO));
+        Long expectedVersion = ResourceVersionService.expectedVersion(ifMatch, workOrderDTO.getVersion());
+        return ResponseEntity.ok(workOrderService.updateWorkOrder(id, workOrderDTO, expectedVersion));
     }
 
     @PatchMapping("/{id}/status")
     @Operation(summary = "Update work order status")
     public ResponseEntity<WorkOrderDTO> updateStatus(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Map<String, String> statusUpdate) {
         WorkOrderStatus newStatus = WorkOrderStatus.valueOf(statusUpdate.get("status"));
-        return ResponseEntity.ok(workOrderService.updateStatus(id, newStatus));
+        return ResponseEntity.ok(workOrderService.updateStatus(
+                id, newStatus, ResourceVersionService.expectedVersion(ifMatch, null)));
+    }
+
+    @PostMapping("/{id}/auto-schedule")
+    @Operation(summary = "Assign the earliest free mechanic slot to a work order")
+    public ResponseEntity<WorkOrderDTO> autoSchedule(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return ResponseEntity.ok(workOrderService.autoSchedule(id, from));
     }
 
     @PostMapping("/{id}/services")
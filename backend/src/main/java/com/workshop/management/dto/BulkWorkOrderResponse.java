@@ -0,0 +1,30 @@
+package com.workshop.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkWorkOrderResponse {
+    private int created;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private boolean success;
+        private Long id;
+        private String orderNumber;
+        private String error;
+    }
+}
@@ -0,0 +1,40 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}; the extra row
+     * only signals that another page exists and is not returned.
+     */
+    public static <E extends BaseEntity, T> CursorPage<T> of(List<E> rows, int size,
+            Function<List<E>, List<T>> mapper) {
+        return of(rows, size, row -> new KeysetCursor(row.getCreatedAt(), row.getId()), mapper);
+    }
+
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, KeysetCursor> cursorOf,
+            Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .content(mapper.apply(pageRows))
+                .size(pageRows.size())
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null)
+                .build();
+    }
+}
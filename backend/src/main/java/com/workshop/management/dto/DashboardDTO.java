@@ -23,4 +23,6 @@ public class DashboardDTO {
     private BigDecimal outstandingBalance;
     private List<WorkOrderDTO> recentWorkOrders;
     private List<WorkOrderDTO> upcomingAppointments;
+    // Sections that could not be loaded in time; absent when the dashboard is complete
+    private List<String> unavailable;
 }
@@ -0,0 +1,37 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.ImportStatus;
+import com.workshop.management.entity.ImportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+    private Long id;
+    private ImportType type;
+    private ImportStatus status;
+    private long rowsProcessed;
+    private long inserted;
+    private long failed;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private List<RowError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -31,4 +31,5 @@ public class InvoiceDTO {
     private LocalDate dueDate;
     private LocalDate paidDate;
     private String notes;
+    private Long version;
 }
@@ -0,0 +1,51 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.InvoiceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Invoice change notification written to the outbox.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceEvent {
+
+    public enum Type {
+        CREATED,
+        PAYMENT_RECORDED
+    }
+
+    private Type type;
+    private Long invoiceId;
+    private String invoiceNumber;
+    private Long workOrderId;
+    private InvoiceStatus status;
+    private BigDecimal totalAmount;
+    private BigDecimal paidAmount;
+    private BigDecimal paymentAmount;
+    private String paymentReference;
+    private LocalDateTime occurredAt;
+
+    public static InvoiceEvent of(Type type, Invoice invoice, BigDecimal paymentAmount) {
+        return InvoiceEvent.builder()
+                .type(type)
+                .invoiceId(invoice.getId())
+                .invoiceNumber(invoice.getInvoiceNumber())
+                .workOrderId(invoice.getWorkOrder().getId())
+                .status(invoice.getStatus())
+                .totalAmount(invoice.getTotalAmount())
+                .paidAmount(invoice.getPaidAmount())
+                .paymentAmount(paymentAmount)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.InvoiceStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat invoice row read by the export query; never a managed entity.
+ */
+public record InvoiceExportRow(
+        Long id,
+        String invoiceNumber,
+        String workOrderNumber,
+        InvoiceStatus status,
+        LocalDate issueDate,
+        LocalDate dueDate,
+        LocalDate paidDate,
+        Long customerId,
+        String customerFirstName,
+        String customerLastName,
+        BigDecimal subtotal,
+        BigDecimal taxRate,
+        BigDecimal taxAmount,
+        BigDecimal totalAmount,
+        BigDecimal paidAmount) {
+
+    public BigDecimal balanceDue() {
+        return totalAmount.subtract(paidAmount);
+    }
+}
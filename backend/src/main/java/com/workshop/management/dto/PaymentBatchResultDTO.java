@@ -0,0 +1,48 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.InvoiceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of a payment batch, with one result per input line in input order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchResultDTO {
+
+    public enum Outcome {
+        APPLIED,
+        DUPLICATE,
+        REJECTED
+    }
+
+    private int lines;
+    private int applied;
+    private int duplicates;
+    private int rejected;
+    private BigDecimal appliedAmount;
+    private List<LineResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineResult {
+        private long line;
+        private String invoiceNumber;
+        private String reference;
+        private BigDecimal amount;
+        private Outcome outcome;
+        private String message;
+        private InvoiceStatus invoiceStatus;
+        private BigDecimal balanceDue;
+    }
+}
@@ -0,0 +1,18 @@
+package com.workshop.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentLineDTO {
+    private String invoiceNumber;
+    private BigDecimal amount;
+    private String reference;
+}
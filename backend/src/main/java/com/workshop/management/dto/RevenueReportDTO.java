@@ -0,0 +1,56 @@
+package com.workshop.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueReportDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal billedAmount;
+    private long invoicesIssued;
+    private BigDecimal paymentsAmount;
+    private long paymentsCount;
+    private BigDecimal paidRevenue;
+    private long invoicesPaid;
+    private BigDecimal outstandingBalance;
+    private Map<String, Long> invoicesByStatus;
+    private Map<String, BigDecimal> billedByCategory;
+    private List<MechanicRevenue> byMechanic;
+    private List<DailyRevenue> daily;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyRevenue {
+        private LocalDate day;
+        private BigDecimal billedAmount;
+        private long invoicesIssued;
+        private BigDecimal paymentsAmount;
+        private long paymentsCount;
+        private BigDecimal paidRevenue;
+        private long invoicesPaid;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MechanicRevenue {
+        private Long mechanicId;
+        private String mechanicName;
+        private BigDecimal billedAmount;
+        private BigDecimal paidRevenue;
+    }
+}
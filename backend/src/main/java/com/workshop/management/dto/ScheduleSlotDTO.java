@@ -0,0 +1,19 @@
+package com.workshop.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSlotDTO {
+    private Long mechanicId;
+    private String mechanicName;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
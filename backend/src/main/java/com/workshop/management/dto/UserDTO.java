@@ -0,0 +1,36 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.Role;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDTO {
+    private Long id;
+
+    private String username;
+
+    @NotBlank
+    @Size(max = 100)
+    private String fullName;
+
+    @Email
+    @NotBlank
+    private String email;
+
+    private String phone;
+
+    @NotNull
+    private Role role;
+
+    private boolean enabled;
+}
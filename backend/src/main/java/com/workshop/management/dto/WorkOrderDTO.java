@@ -41,4 +41,5 @@ public class WorkOrderDTO {
     private BigDecimal totalCost;
     private List<WorkOrderServiceDTO> services;
     private LocalDateTime createdAt;
+    private Long version;
 }
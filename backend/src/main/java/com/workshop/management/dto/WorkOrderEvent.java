@@ -0,0 +1,56 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.entity.WorkOrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact change notification for a work order, published after the change commits
+ * and pushed to live board subscribers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkOrderEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        SERVICE_ADDED
+    }
+
+    private Type type;
+    private Long workOrderId;
+    private String orderNumber;
+    private WorkOrderStatus status;
+    private WorkOrderStatus previousStatus;
+    private Long assignedMechanicId;
+    private LocalDateTime scheduledDate;
+    private Integer estimatedMinutes;
+    private BigDecimal totalCost;
+    private LocalDateTime occurredAt;
+
+    public static WorkOrderEvent of(Type type, WorkOrder workOrder, WorkOrderStatus previousStatus) {
+        return WorkOrderEvent.builder()
+                .type(type)
+                .workOrderId(workOrder.getId())
+                .orderNumber(workOrder.getOrderNumber())
+                .status(workOrder.getStatus())
+                .previousStatus(previousStatus)
+                .assignedMechanicId(
+                        workOrder.getAssignedMechanic() != null ? workOrder.getAssignedMechanic().getId() : null)
+                .scheduledDate(workOrder.getScheduledDate())
+                .estimatedMinutes(workOrder.getEstimatedMinutes())
+                .totalCost(workOrder.getTotalCost())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
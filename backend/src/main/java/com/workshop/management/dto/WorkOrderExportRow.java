@@ -0,0 +1,33 @@
+package com.workshop.management.dto;
+
+import com.workshop.management.entity.WorkOrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat work order row read by the export query; never a managed entity.
+ */
+public record WorkOrderExportRow(
+        Long id,
+        String orderNumber,
+        WorkOrderStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime scheduledDate,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt,
+        Long customerId,
+        String customerFirstName,
+        String customerLastName,
+        Long vehicleId,
+        String licensePlate,
+        String vehicleMake,
+        String vehicleModel,
+        Integer vehicleYear,
+        String mechanicName,
+        Integer estimatedMinutes,
+        BigDecimal laborCost,
+        BigDecimal partsCost,
+        BigDecimal servicesTotal,
+        BigDecimal totalCost) {
+}
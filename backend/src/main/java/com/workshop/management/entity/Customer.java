@@ -10,7 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = @Index(name = "idx_customers_created_id", columnList = "created_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -52,7 +52,16 @@ public class Customer extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Names and email together can exceed any sensible VARCHAR limit
+    @Column(columnDefinition = "TEXT")
+    @Setter(AccessLevel.NONE)
+    private String searchText;
+
+    @Column(length = 20)
+    @Setter(AccessLevel.NONE)
+    private String phoneDigits;
+
+    @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Vehicle> vehicles = new ArrayList<>();
 
@@ -69,4 +78,11 @@ public class Customer extends BaseEntity {
         vehicles.remove(vehicle);
         vehicle.setCustomer(null);
     }
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchColumns() {
+        this.searchText = SearchNormalization.text(firstName, lastName, email);
+        this.phoneDigits = SearchNormalization.digits(phone);
+    }
 }
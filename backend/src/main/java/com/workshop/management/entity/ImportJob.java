@@ -0,0 +1,47 @@
+package com.workshop.management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a CSV import. {@code rowsProcessed} only advances in the same
+ * transaction as the rows it covers, so an interrupted import can be resumed
+ * from exactly that row.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private ImportStatus status = ImportStatus.RUNNING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long rowsProcessed = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long inserted = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long failed = 0;
+
+    private LocalDateTime completedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
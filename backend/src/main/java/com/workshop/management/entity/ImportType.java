@@ -0,0 +1,6 @@
+package com.workshop.management.entity;
+
+public enum ImportType {
+    CUSTOMERS,
+    VEHICLES
+}
@@ -2,12 +2,17 @@ package com.workshop.management.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+        @Index(name = "idx_invoices_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_invoices_status_created_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_invoices_status_due_date", columnList = "status, due_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,6 +23,11 @@ public class Invoice extends BaseEntity {
     @Column(unique = true, nullable = false)
     private String invoiceNumber;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "work_order_id", nullable = false)
     private WorkOrder workOrder;
@@ -70,16 +80,13 @@ public class Invoice extends BaseEntity {
         if (this.paidAmount.compareTo(this.totalAmount) >= 0) {
             this.status = InvoiceStatus.PAID;
             this.paidDate = LocalDate.now();
-        } else if (this.paidAmount.compareTo(BigDecimal.ZERO) > 0) {
+        } else if (this.paidAmount.compareTo(BigDecimal.ZERO) > 0 && this.status != InvoiceStatus.OVERDUE) {
             this.status = InvoiceStatus.PARTIALLY_PAID;
         }
     }
 
     @PrePersist
-    public void generateInvoiceNumber() {
-        if (invoiceNumber == null) {
-            this.invoiceNumber = "INV-" + System.currentTimeMillis();
-        }
+    public void setDefaultDates() {
         if (issueDate == null) {
             this.issueDate = LocalDate.now();
         }
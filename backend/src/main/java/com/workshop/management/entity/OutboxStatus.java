@@ -0,0 +1,7 @@
+package com.workshop.management.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    PUBLISHED,
+    FAILED
+}
@@ -0,0 +1,34 @@
+package com.workshop.management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment applied from a settlement file. The bank or processor reference is
+ * unique, so the same file can be sent again without paying anything twice.
+ */
+@Entity
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_invoice", columnList = "invoice_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Payment extends BaseEntity {
+
+    public static final int MAX_REFERENCE_LENGTH = 100;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", nullable = false)
+    private Invoice invoice;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(unique = true, nullable = false, length = MAX_REFERENCE_LENGTH)
+    private String reference;
+}
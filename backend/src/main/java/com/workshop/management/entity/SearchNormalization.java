@@ -0,0 +1,31 @@
+package com.workshop.management.entity;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Normalization shared by the stored search columns and the search terms matched
+ * against them. The SQL backfill in {@code schema-postgresql.sql} must stay in sync.
+ */
+public final class SearchNormalization {
+
+    private SearchNormalization() {
+    }
+
+    public static String text(String... parts) {
+        return Arrays.stream(parts)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "))
+                .toLowerCase(Locale.ROOT);
+    }
+
+    public static String digits(String value) {
+        return value == null ? "" : value.replaceAll("[^0-9]", "");
+    }
+
+    public static String code(String value) {
+        return value == null ? "" : value.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT);
+    }
+}
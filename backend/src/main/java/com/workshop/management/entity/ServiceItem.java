@@ -6,10 +6,14 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ServiceItem.CACHE_REGION)
 @Table(name = "services")
 @Getter
 @Setter
@@ -18,6 +22,8 @@ import java.math.BigDecimal;
 @Builder
 public class ServiceItem extends BaseEntity {
 
+    public static final String CACHE_REGION = "service-items";
+
     @NotBlank
     @Size(max = 100)
     @Column(nullable = false)
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +15,8 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Table(name = "users")
 @Getter
 @Setter
@@ -21,6 +25,11 @@ import java.util.List;
 @Builder
 public class User extends BaseEntity implements UserDetails {
 
+    public static final String CACHE_REGION = "users";
+
+    /** Query cache region for the per-request auth state, kept short-lived. */
+    public static final String AUTH_STATE_CACHE_REGION = "user-auth-state";
+
     @NotBlank
     @Size(min = 3, max = 50)
     @Column(unique = true, nullable = false)
@@ -9,7 +9,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+        @Index(name = "idx_vehicles_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_vehicles_customer_id", columnList = "customer_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -46,6 +49,18 @@ public class Vehicle extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    @Column(length = 120)
+    @Setter(AccessLevel.NONE)
+    private String searchText;
+
+    @Column(length = 20)
+    @Setter(AccessLevel.NONE)
+    private String plateNormalized;
+
+    @Column(length = 17)
+    @Setter(AccessLevel.NONE)
+    private String vinNormalized;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -57,4 +72,12 @@ public class Vehicle extends BaseEntity {
     public String getDisplayName() {
         return year + " " + make + " " + model;
     }
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchColumns() {
+        this.searchText = SearchNormalization.text(make, model);
+        this.plateNormalized = SearchNormalization.code(licensePlate);
+        this.vinNormalized = SearchNormalization.code(vin);
+    }
 }
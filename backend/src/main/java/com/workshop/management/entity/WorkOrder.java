@@ -3,6 +3,7 @@ package com.workshop.management.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,7 +11,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "work_orders")
+@Table(name = "work_orders", indexes = {
+        @Index(name = "idx_work_orders_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_work_orders_status_created_id", columnList = "status, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +25,11 @@ public class WorkOrder extends BaseEntity {
     @Column(unique = true, nullable = false)
     private String orderNumber;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
@@ -62,6 +71,16 @@ public class WorkOrder extends BaseEntity {
     @Builder.Default
     private BigDecimal partsCost = BigDecimal.ZERO;
 
+    @Column(precision = 12, scale = 2)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private BigDecimal servicesTotal = BigDecimal.ZERO;
+
+    @Column(precision = 12, scale = 2)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private BigDecimal totalCost = BigDecimal.ZERO;
+
     @OneToMany(mappedBy = "workOrder", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<WorkOrderService> services = new ArrayList<>();
@@ -69,27 +88,55 @@ public class WorkOrder extends BaseEntity {
     @OneToOne(mappedBy = "workOrder", cascade = CascadeType.ALL)
     private Invoice invoice;
 
-    public BigDecimal getTotalCost() {
-        BigDecimal serviceCost = services.stream()
-                .map(WorkOrderService::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return serviceCost.add(laborCost).add(partsCost);
+    public void setLaborCost(BigDecimal laborCost) {
+        this.laborCost = laborCost != null ? laborCost : BigDecimal.ZERO;
+        updateTotalCost();
+    }
+
+    public void setPartsCost(BigDecimal partsCost) {
+        this.partsCost = partsCost != null ? partsCost : BigDecimal.ZERO;
+        updateTotalCost();
     }
 
     public void addService(WorkOrderService service) {
         services.add(service);
         service.setWorkOrder(this);
+        adjustServicesTotal(service.getPrice());
     }
 
     public void removeService(WorkOrderService service) {
         services.remove(service);
         service.setWorkOrder(null);
+        adjustServicesTotal(service.getPrice().negate());
+    }
+
+    public void repriceService(WorkOrderService service, BigDecimal newPrice) {
+        adjustServicesTotal(newPrice.subtract(service.getPrice()));
+        service.setPrice(newPrice);
+    }
+
+    /**
+     * Applies a line item price change to the stored totals without loading the
+     * {@code services} collection.
+     */
+    public void adjustServicesTotal(BigDecimal delta) {
+        this.servicesTotal = servicesTotal.add(delta);
+        updateTotalCost();
+    }
+
+    public void recalculateTotals() {
+        this.servicesTotal = services.stream()
+                .map(WorkOrderService::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        updateTotalCost();
+    }
+
+    private void updateTotalCost() {
+        this.totalCost = servicesTotal.add(laborCost).add(partsCost);
     }
 
     @PrePersist
-    public void generateOrderNumber() {
-        if (orderNumber == null) {
-            this.orderNumber = "WO-" + System.currentTimeMillis();
-        }
+    public void initializeTotals() {
+        updateTotalCost();
     }
 }
@@ -2,6 +2,7 @@ package com.workshop.management.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -34,6 +35,11 @@ public class WorkOrderService extends BaseEntity {
     @Builder.Default
     private boolean completed = false;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     public void setDefaultValues() {
         if (quantity == null) {
@@ -0,0 +1,25 @@
+package com.workshop.management.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ConflictException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public ConflictException(String resourceName, Long id, Long currentVersion) {
+        super(String.format("%s with id %d was modified by another request, current version is %d",
+                resourceName, id, currentVersion));
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * Fails unless the client's expected version, when it sent one, is the
+     * version that was just loaded.
+     */
+    public static void checkVersion(String resourceName, Long id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ConflictException(resourceName, id, currentVersion);
+        }
+    }
+}
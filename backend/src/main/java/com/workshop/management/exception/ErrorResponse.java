@@ -19,6 +19,7 @@ public class ErrorResponse {
     private String message;
     private String path;
     private List<FieldError> fieldErrors;
+    private Long currentVersion;
 
     @Data
     @Builder
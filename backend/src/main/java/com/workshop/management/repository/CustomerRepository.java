@@ -8,20 +8,46 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    String WITH_VEHICLE_COUNT = "SELECT c AS customer, " +
+            "(SELECT COUNT(v) FROM Vehicle v WHERE v.customer = c) AS vehicleCount FROM Customer c ";
+
     Optional<Customer> findByEmail(String email);
 
     Optional<Customer> findByPhone(String phone);
 
-    @Query("SELECT c FROM Customer c WHERE " +
-            "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "c.phone LIKE CONCAT('%', :search, '%')")
-    Page<Customer> searchCustomers(@Param("search") String search, Pageable pageable);
+    boolean existsByEmail(String email);
+
+    boolean existsByPhone(String phone);
+
+    @Query(value = WITH_VEHICLE_COUNT, countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<CustomerWithVehicleCount> findAllWithVehicleCount(Pageable pageable);
+
+    @Query(WITH_VEHICLE_COUNT + "WHERE c.id = :id")
+    Optional<CustomerWithVehicleCount> findWithVehicleCountById(@Param("id") Long id);
+
+    @Query(value = WITH_VEHICLE_COUNT + "WHERE " +
+            "c.searchText LIKE CONCAT('%', :text, '%') OR " +
+            "(:digits <> '' AND c.phoneDigits LIKE CONCAT('%', :digits, '%'))",
+            countQuery = "SELECT COUNT(c) FROM Customer c WHERE " +
+                    "c.searchText LIKE CONCAT('%', :text, '%') OR " +
+                    "(:digits <> '' AND c.phoneDigits LIKE CONCAT('%', :digits, '%'))")
+    Page<CustomerWithVehicleCount> searchCustomers(
+            @Param("text") String text,
+            @Param("digits") String digits,
+            Pageable pageable);
+
+    @Query(WITH_VEHICLE_COUNT + "WHERE (c.createdAt, c.id) < (:createdAt, :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CustomerWithVehicleCount> findPageBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit);
 
     long count();
 }
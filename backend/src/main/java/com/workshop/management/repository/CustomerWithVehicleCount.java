@@ -0,0 +1,9 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.Customer;
+
+public interface CustomerWithVehicleCount {
+    Customer getCustomer();
+
+    Long getVehicleCount();
+}
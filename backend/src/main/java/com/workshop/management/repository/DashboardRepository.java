@@ -0,0 +1,54 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.dto.DashboardDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+@RequiredArgsConstructor
+public class DashboardRepository {
+
+    private static final String KPI_QUERY = """
+            SELECT (SELECT COUNT(*) FROM customers) AS total_customers,
+                   (SELECT COUNT(*) FROM vehicles) AS total_vehicles,
+                   wo.pending, wo.in_progress, wo.completed,
+                   inv.pending_invoices, rev.monthly_revenue, inv.outstanding_balance
+            FROM (SELECT COUNT(*) FILTER (WHERE status = 'PENDING') AS pending,
+                         COUNT(*) FILTER (WHERE status = 'IN_PROGRESS') AS in_progress,
+                         COUNT(*) FILTER (WHERE status = 'COMPLETED') AS completed
+                  FROM work_orders) wo
+            CROSS JOIN (SELECT COALESCE(SUM(invoice_count) FILTER (WHERE status IN ('SENT', 'PARTIALLY_PAID', 'OVERDUE')), 0)
+                                       AS pending_invoices,
+                               COALESCE(SUM(total_amount - paid_amount) FILTER (WHERE status NOT IN ('PAID', 'CANCELLED')), 0)
+                                       AS outstanding_balance
+                        FROM invoice_status_totals) inv
+            CROSS JOIN (SELECT COALESCE(SUM(paid_revenue), 0) AS monthly_revenue
+                        FROM revenue_daily WHERE day BETWEEN :monthStart AND :monthEnd) rev
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads every scalar dashboard KPI in one round trip. The returned DTO has no
+     * work order lists; callers add those.
+     */
+    public DashboardDTO loadKpis(LocalDate monthStart, LocalDate monthEnd) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("monthStart", monthStart)
+                .addValue("monthEnd", monthEnd);
+        return jdbcTemplate.queryForObject(KPI_QUERY, params, (rs, rowNum) -> DashboardDTO.builder()
+                .totalCustomers(rs.getLong("total_customers"))
+                .totalVehicles(rs.getLong("total_vehicles"))
+                .pendingWorkOrders(rs.getLong("pending"))
+                .inProgressWorkOrders(rs.getLong("in_progress"))
+                .completedWorkOrdersToday(rs.getLong("completed"))
+                .pendingInvoices(rs.getLong("pending_invoices"))
+                .monthlyRevenue(rs.getBigDecimal("monthly_revenue"))
+                .outstandingBalance(rs.getBigDecimal("outstanding_balance"))
+                .build());
+    }
+}
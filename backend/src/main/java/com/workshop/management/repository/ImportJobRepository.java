@@ -0,0 +1,24 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    /**
+     * Moves the job forward from {@code expected} rows. Returns 0 if another run
+     * has advanced the job in the meantime.
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.rowsProcessed = :rowsProcessed, j.inserted = j.inserted + :inserted, " +
+            "j.failed = j.failed + :failed, j.updatedAt = :now WHERE j.id = :id AND j.rowsProcessed = :expected")
+    int advance(@Param("id") Long id, @Param("expected") long expected, @Param("rowsProcessed") long rowsProcessed,
+            @Param("inserted") long inserted, @Param("failed") long failed, @Param("now") LocalDateTime now);
+}
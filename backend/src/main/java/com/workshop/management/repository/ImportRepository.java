@@ -0,0 +1,151 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.SearchNormalization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for CSV imports. Inserts go out as JDBC batches, which the
+ * driver rewrites into multi-row statements (reWriteBatchedInserts).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImportRepository {
+
+    /** Must match the allocationSize of entity_id_seq on BaseEntity. */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_CUSTOMER = """
+            INSERT INTO customers (id, first_name, last_name, email, phone, address, city, state, zip_code, notes,
+                                   search_text, phone_digits, created_at, updated_at)
+            VALUES (:id, :firstName, :lastName, :email, :phone, :address, :city, :state, :zipCode, :notes,
+                    :searchText, :phoneDigits, :now, :now)
+            """;
+
+    private static final String INSERT_VEHICLE = """
+            INSERT INTO vehicles (id, vin, make, model, year, color, license_plate, mileage, notes, search_text,
+                                  plate_normalized, vin_normalized, customer_id, created_at, updated_at)
+            VALUES (:id, :vin, :make, :model, :year, :color, :licensePlate, :mileage, :notes, :searchText,
+                    :plateNormalized, :vinNormalized, :customerId, :now, :now)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public record CustomerRow(String firstName, String lastName, String email, String phone, String address,
+            String city, String state, String zipCode, String notes) {
+    }
+
+    public record VehicleRow(Long customerId, String vin, String make, String model, Integer year, String color,
+            String licensePlate, Integer mileage, String notes) {
+    }
+
+    public record RowError(long row, String message) {
+    }
+
+    public void forEachCustomerKey(RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT id, email, phone FROM customers", handler);
+    }
+
+    public void forEachVehicleKey(RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT vin, license_plate FROM vehicles", handler);
+    }
+
+    /**
+     * Reserves ids from entity_id_seq the same way Hibernate's pooled optimizer
+     * does: each {@code nextval} hands out the block ending at that value.
+     */
+    public List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> ends = jdbcTemplate.queryForList(
+                "SELECT nextval('entity_id_seq') FROM generate_series(1, :blocks)",
+                Map.of("blocks", blocks), Long.class);
+        List<Long> ids = new ArrayList<>(blocks * ID_BLOCK_SIZE);
+        for (Long end : ends) {
+            for (long id = end - ID_BLOCK_SIZE + 1; id <= end; id++) {
+                ids.add(id);
+            }
+        }
+        return ids.subList(0, count);
+    }
+
+    public void insertCustomers(List<CustomerRow> rows) {
+        List<Long> ids = allocateIds(rows.size());
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            CustomerRow row = rows.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("firstName", row.firstName())
+                    .addValue("lastName", row.lastName())
+                    .addValue("email", row.email())
+                    .addValue("phone", row.phone())
+                    .addValue("address", row.address())
+                    .addValue("city", row.city())
+                    .addValue("state", row.state())
+                    .addValue("zipCode", row.zipCode())
+                    .addValue("notes", row.notes())
+                    .addValue("searchText", SearchNormalization.text(row.firstName(), row.lastName(), row.email()))
+                    .addValue("phoneDigits", SearchNormalization.digits(row.phone()))
+                    .addValue("now", now);
+        }
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER, batch);
+    }
+
+    public void insertVehicles(List<VehicleRow> rows) {
+        List<Long> ids = allocateIds(rows.size());
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            VehicleRow row = rows.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("vin", row.vin())
+                    .addValue("make", row.make())
+                    .addValue("model", row.model())
+                    .addValue("year", row.year())
+                    .addValue("color", row.color())
+                    .addValue("licensePlate", row.licensePlate())
+                    .addValue("mileage", row.mileage())
+                    .addValue("notes", row.notes())
+                    .addValue("searchText", SearchNormalization.text(row.make(), row.model()))
+                    .addValue("plateNormalized", SearchNormalization.code(row.licensePlate()))
+                    .addValue("vinNormalized", SearchNormalization.code(row.vin()))
+                    .addValue("customerId", row.customerId())
+                    .addValue("now", now);
+        }
+        jdbcTemplate.batchUpdate(INSERT_VEHICLE, batch);
+    }
+
+    public void insertErrors(Long jobId, List<RowError> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = errors.stream()
+                .map(error -> new MapSqlParameterSource()
+                        .addValue("jobId", jobId)
+                        .addValue("row", error.row())
+                        .addValue("message", error.message()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO import_row_errors (job_id, row_number, message) VALUES (:jobId, :row, :message)
+                ON CONFLICT (job_id, row_number) DO UPDATE SET message = EXCLUDED.message
+                """, batch);
+    }
+
+    public List<RowError> findErrors(Long jobId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT row_number, message FROM import_row_errors WHERE job_id = :jobId ORDER BY row_number LIMIT :limit",
+                new MapSqlParameterSource().addValue("jobId", jobId).addValue("limit", limit),
+                (rs, i) -> new RowError(rs.getLong("row_number"), rs.getString("message")));
+    }
+}
@@ -1,31 +1,72 @@
 package com.workshop.management.repository;
 
+import com.workshop.management.dto.InvoiceExportRow;
 import com.workshop.management.entity.Invoice;
 import com.workshop.management.entity.InvoiceStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+    int EXPORT_FETCH_SIZE = 1_000;
+
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
 
+    @EntityGraph(attributePaths = "workOrder")
+    List<Invoice> findByInvoiceNumberIn(Collection<String> invoiceNumbers);
+
     Optional<Invoice> findByWorkOrderId(Long workOrderId);
 
     List<Invoice> findByStatus(InvoiceStatus status);
 
     Page<Invoice> findByStatus(InvoiceStatus status, Pageable pageable);
 
-    @Query("SELECT i FROM Invoice i WHERE i.dueDate < :today AND i.status NOT IN ('PAID', 'CANCELLED')")
-    List<Invoice> findOverdueInvoices(@Param("today") LocalDate today);
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.workOrder wo JOIN FETCH wo.vehicle v JOIN FETCH v.customer " +
+            "WHERE (i.createdAt, i.id) < (:createdAt, :id) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Invoice> findPageBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit);
+
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.workOrder wo JOIN FETCH wo.vehicle v JOIN FETCH v.customer " +
+            "WHERE i.status = :status AND (i.createdAt, i.id) < (:createdAt, :id) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Invoice> findPageBeforeByStatus(
+            @Param("status") InvoiceStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit);
+
+    /**
+     * Streams every invoice from a server-side cursor. Must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.workshop.management.dto.InvoiceExportRow(i.id, i.invoiceNumber, wo.orderNumber, " +
+            "i.status, i.issueDate, i.dueDate, i.paidDate, c.id, c.firstName, c.lastName, i.subtotal, " +
+            "i.taxRate, i.taxAmount, i.totalAmount, i.paidAmount) " +
+            "FROM Invoice i JOIN i.workOrder wo JOIN wo.vehicle v JOIN v.customer c ORDER BY i.id")
+    Stream<InvoiceExportRow> streamForExport();
 
     @Query("SELECT SUM(i.totalAmount) FROM Invoice i WHERE i.status = 'PAID' AND i.paidDate BETWEEN :start AND :end")
     BigDecimal calculateRevenueForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
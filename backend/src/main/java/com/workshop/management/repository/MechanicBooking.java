@@ -0,0 +1,17 @@
+package com.workshop.management.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time a mechanic is booked for an open work order.
+ */
+public interface MechanicBooking {
+
+    Long getWorkOrderId();
+
+    Long getMechanicId();
+
+    LocalDateTime getScheduledDate();
+
+    Integer getEstimatedMinutes();
+}
@@ -0,0 +1,40 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.OutboxEvent;
+import com.workshop.management.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the next due events. Rows locked by another relay are skipped rather
+     * than waited on, so several instances can drain the outbox in parallel.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxEvent o WHERE o.id IN :ids")
+    List<OutboxEvent> lockAllById(@Param("ids") Collection<Long> ids);
+
+    Optional<OutboxEvent> findFirstByStatusOrderByIdAsc(OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.status = :status AND o.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("status") OutboxStatus status, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,17 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    @Query("SELECT p.reference FROM Payment p WHERE p.reference IN :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+}
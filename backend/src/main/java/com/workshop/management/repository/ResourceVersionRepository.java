@@ -0,0 +1,117 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.entity.WorkOrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Cheap fingerprints of what an API response is built from: modification
+ * timestamps of the row and of every row its DTO pulls data from. Used to answer
+ * conditional GETs without loading or mapping the resource, and to report the
+ * current optimistic lock version after a conflict.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResourceVersionRepository {
+
+    private static final String WORK_ORDER = """
+            SELECT wo.version, wo.updated_at, v.updated_at, c.updated_at, m.updated_at,
+                   ws.line_count, ws.lines_updated, ws.services_updated
+            FROM work_orders wo
+            JOIN vehicles v ON v.id = wo.vehicle_id
+            JOIN customers c ON c.id = v.customer_id
+            LEFT JOIN users m ON m.id = wo.assigned_mechanic_id
+            CROSS JOIN LATERAL (SELECT COUNT(*) AS line_count, MAX(wos.updated_at) AS lines_updated,
+                                       MAX(s.updated_at) AS services_updated
+                                FROM work_order_services wos JOIN services s ON s.id = wos.service_id
+                                WHERE wos.work_order_id = wo.id) ws
+            WHERE wo.id = :id
+            """;
+
+    private static final String CUSTOMER = """
+            SELECT c.updated_at, (SELECT COUNT(*) FROM vehicles v WHERE v.customer_id = c.id)
+            FROM customers c
+            WHERE c.id = :id
+            """;
+
+    // MAX(updated_at) comes from the updated_at indexes; the counts catch deletes
+    private static final String WORK_ORDERS_WATERMARK = """
+            SELECT (SELECT MAX(updated_at) FROM work_orders), (SELECT COUNT(*) FROM work_orders),
+                   (SELECT MAX(updated_at) FROM work_order_services), (SELECT MAX(updated_at) FROM vehicles),
+                   (SELECT MAX(updated_at) FROM customers), (SELECT MAX(updated_at) FROM users),
+                   (SELECT MAX(updated_at) FROM services)
+            """;
+
+    private static final String CUSTOMERS_WATERMARK = """
+            SELECT (SELECT MAX(updated_at) FROM customers), (SELECT COUNT(*) FROM customers),
+                   (SELECT MAX(updated_at) FROM vehicles), (SELECT COUNT(*) FROM vehicles)
+            """;
+
+    private static final Map<String, String> VERSIONED_TABLES = Map.of(
+            WorkOrder.class.getName(), "work_orders",
+            Invoice.class.getName(), "invoices",
+            WorkOrderService.class.getName(), "work_order_services");
+
+    private static final RowMapper<String> FINGERPRINT = (rs, rowNum) -> {
+        ResultSetMetaData meta = rs.getMetaData();
+        StringJoiner joiner = new StringJoiner("|");
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            joiner.add(String.valueOf(rs.getObject(i)));
+        }
+        return joiner.toString();
+    };
+
+    // Queries for versioned rows select the version as their first column
+    private static final RowMapper<Fingerprint> VERSIONED_FINGERPRINT = (rs, rowNum) ->
+            new Fingerprint(rs.getLong(1), FINGERPRINT.mapRow(rs, rowNum));
+
+    public record Fingerprint(long version, String value) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<Fingerprint> workOrder(Long id) {
+        return jdbcTemplate.query(WORK_ORDER, new MapSqlParameterSource("id", id), VERSIONED_FINGERPRINT)
+                .stream().findFirst();
+    }
+
+    public Optional<String> customer(Long id) {
+        return single(CUSTOMER, id);
+    }
+
+    public String workOrdersWatermark() {
+        return jdbcTemplate.queryForObject(WORK_ORDERS_WATERMARK, new MapSqlParameterSource(), FINGERPRINT);
+    }
+
+    public String customersWatermark() {
+        return jdbcTemplate.queryForObject(CUSTOMERS_WATERMARK, new MapSqlParameterSource(), FINGERPRINT);
+    }
+
+    /**
+     * Version of a row of a versioned entity, looked up by the entity's class name.
+     */
+    public Optional<Long> currentVersion(String entityName, Object id) {
+        String table = VERSIONED_TABLES.get(entityName);
+        if (table == null || id == null) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.queryForList("SELECT version FROM " + table + " WHERE id = :id",
+                new MapSqlParameterSource("id", id), Long.class).stream().findFirst();
+    }
+
+    private Optional<String> single(String sql, Long id) {
+        List<String> rows = jdbcTemplate.query(sql, new MapSqlParameterSource("id", id), FINGERPRINT);
+        return rows.stream().findFirst();
+    }
+}
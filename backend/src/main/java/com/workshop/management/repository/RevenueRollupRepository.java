@@ -0,0 +1,281 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.dto.RevenueReportDTO;
+import com.workshop.management.entity.InvoiceStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Daily revenue rollup tables from schema-postgresql.sql. Every write is an
+ * additive upsert that keeps its rows locked until commit. Daily rows are only
+ * contended by transactions booking the same day, but invoice_status_totals has
+ * a single row per status: every invoice write that changes a status total waits
+ * for other such writes to commit, so these writes are serialized per status.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevenueRollupRepository {
+
+    private static final String ADD_DAILY = """
+            INSERT INTO revenue_daily AS r (day, billed_amount, invoices_issued, payments_amount, payments_count,
+                                            paid_revenue, invoices_paid)
+            VALUES (:day, :billed, :issued, :payments, :paymentCount, :paidRevenue, :paid)
+            ON CONFLICT (day) DO UPDATE SET
+                billed_amount = r.billed_amount + EXCLUDED.billed_amount,
+                invoices_issued = r.invoices_issued + EXCLUDED.invoices_issued,
+                payments_amount = r.payments_amount + EXCLUDED.payments_amount,
+                payments_count = r.payments_count + EXCLUDED.payments_count,
+                paid_revenue = r.paid_revenue + EXCLUDED.paid_revenue,
+                invoices_paid = r.invoices_paid + EXCLUDED.invoices_paid
+            """;
+
+    private static final String ADD_CATEGORIES_FOR_WORK_ORDER = """
+            INSERT INTO revenue_daily_category AS r (day, category, billed_amount)
+            SELECT :day, s.category, SUM(wos.price)
+            FROM work_order_services wos JOIN services s ON s.id = wos.service_id
+            WHERE wos.work_order_id = :workOrderId
+            GROUP BY s.category
+            ON CONFLICT (day, category) DO UPDATE SET billed_amount = r.billed_amount + EXCLUDED.billed_amount
+            """;
+
+    private static final String ADD_MECHANIC = """
+            INSERT INTO revenue_daily_mechanic AS r (day, mechanic_id, billed_amount, paid_revenue)
+            VALUES (:day, :mechanicId, :billed, :paidRevenue)
+            ON CONFLICT (day, mechanic_id) DO UPDATE SET
+                billed_amount = r.billed_amount + EXCLUDED.billed_amount,
+                paid_revenue = r.paid_revenue + EXCLUDED.paid_revenue
+            """;
+
+    private static final String ADJUST_STATUS = """
+            INSERT INTO invoice_status_totals AS t (status, invoice_count, total_amount, paid_amount)
+            VALUES %s
+            ON CONFLICT (status) DO UPDATE SET
+                invoice_count = t.invoice_count + EXCLUDED.invoice_count,
+                total_amount = t.total_amount + EXCLUDED.total_amount,
+                paid_amount = t.paid_amount + EXCLUDED.paid_amount
+            """;
+
+    /**
+     * Recomputes every rollup from the invoices table. Writers to invoices are
+     * blocked until the rebuilding transaction commits. Individual payments are
+     * not stored, so rebuilt payment figures put each invoice's paid amount on
+     * the day it was paid or last updated.
+     */
+    private static final List<String> REBUILD = List.of(
+            "LOCK TABLE invoices IN SHARE MODE",
+            "DELETE FROM revenue_daily",
+            "DELETE FROM revenue_daily_category",
+            "DELETE FROM revenue_daily_mechanic",
+            "DELETE FROM invoice_status_totals",
+            """
+            INSERT INTO revenue_daily (day, billed_amount, invoices_issued)
+            SELECT issue_date, SUM(total_amount), COUNT(*) FROM invoices
+            WHERE status <> 'DRAFT' GROUP BY issue_date
+            """,
+            """
+            INSERT INTO revenue_daily AS r (day, paid_revenue, invoices_paid)
+            SELECT paid_date, SUM(total_amount), COUNT(*) FROM invoices
+            WHERE status = 'PAID' AND paid_date IS NOT NULL GROUP BY paid_date
+            ON CONFLICT (day) DO UPDATE SET paid_revenue = EXCLUDED.paid_revenue, invoices_paid = EXCLUDED.invoices_paid
+            """,
+            """
+            INSERT INTO revenue_daily AS r (day, payments_amount, payments_count)
+            SELECT COALESCE(paid_date, CAST(updated_at AS DATE), issue_date), SUM(paid_amount), COUNT(*) FROM invoices
+            WHERE paid_amount > 0 GROUP BY 1
+            ON CONFLICT (day) DO UPDATE SET payments_amount = EXCLUDED.payments_amount,
+                payments_count = EXCLUDED.payments_count
+            """,
+            """
+            INSERT INTO revenue_daily_category (day, category, billed_amount)
+            SELECT i.issue_date, s.category, SUM(wos.price)
+            FROM invoices i
+            JOIN work_order_services wos ON wos.work_order_id = i.work_order_id
+            JOIN services s ON s.id = wos.service_id
+            WHERE i.status <> 'DRAFT'
+            GROUP BY i.issue_date, s.category
+            """,
+            """
+            INSERT INTO revenue_daily_mechanic (day, mechanic_id, billed_amount)
+            SELECT i.issue_date, wo.assigned_mechanic_id, SUM(i.total_amount)
+            FROM invoices i JOIN work_orders wo ON wo.id = i.work_order_id
+            WHERE wo.assigned_mechanic_id IS NOT NULL AND i.status <> 'DRAFT'
+            GROUP BY i.issue_date, wo.assigned_mechanic_id
+            """,
+            """
+            INSERT INTO revenue_daily_mechanic AS r (day, mechanic_id, paid_revenue)
+            SELECT i.paid_date, wo.assigned_mechanic_id, SUM(i.total_amount)
+            FROM invoices i JOIN work_orders wo ON wo.id = i.work_order_id
+            WHERE wo.assigned_mechanic_id IS NOT NULL AND i.status = 'PAID' AND i.paid_date IS NOT NULL
+            GROUP BY i.paid_date, wo.assigned_mechanic_id
+            ON CONFLICT (day, mechanic_id) DO UPDATE SET paid_revenue = EXCLUDED.paid_revenue
+            """,
+            """
+            INSERT INTO invoice_status_totals (status, invoice_count, total_amount, paid_amount)
+            SELECT status, COUNT(*), SUM(total_amount), SUM(paid_amount) FROM invoices GROUP BY status
+            """);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void addDaily(LocalDate day, BigDecimal billed, long issued, BigDecimal payments, long paymentCount,
+            BigDecimal paidRevenue, long paid) {
+        jdbcTemplate.update(ADD_DAILY, new MapSqlParameterSource()
+                .addValue("day", day)
+                .addValue("billed", billed)
+                .addValue("issued", issued)
+                .addValue("payments", payments)
+                .addValue("paymentCount", paymentCount)
+                .addValue("paidRevenue", paidRevenue)
+                .addValue("paid", paid));
+    }
+
+    public void addCategoriesForWorkOrder(LocalDate day, Long workOrderId) {
+        jdbcTemplate.update(ADD_CATEGORIES_FOR_WORK_ORDER, new MapSqlParameterSource()
+                .addValue("day", day)
+                .addValue("workOrderId", workOrderId));
+    }
+
+    public void addMechanic(LocalDate day, Long mechanicId, BigDecimal billed, BigDecimal paidRevenue) {
+        jdbcTemplate.update(ADD_MECHANIC, new MapSqlParameterSource()
+                .addValue("day", day)
+                .addValue("mechanicId", mechanicId)
+                .addValue("billed", billed)
+                .addValue("paidRevenue", paidRevenue));
+    }
+
+    /**
+     * Applies all status total changes of a transaction in one statement, locking
+     * the rows in status name order so that concurrent writers cannot deadlock.
+     */
+    public void adjustStatuses(Map<InvoiceStatus, StatusDelta> deltas) {
+        Map<String, StatusDelta> byName = new TreeMap<>();
+        deltas.forEach((status, delta) -> {
+            if (!delta.isZero()) {
+                byName.put(status.name(), delta);
+            }
+        });
+        if (byName.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringJoiner rows = new StringJoiner(", ");
+        int row = 0;
+        for (Map.Entry<String, StatusDelta> entry : byName.entrySet()) {
+            rows.add("(:status" + row + ", :count" + row + ", :total" + row + ", :paid" + row + ")");
+            params.addValue("status" + row, entry.getKey())
+                    .addValue("count" + row, entry.getValue().count())
+                    .addValue("total" + row, entry.getValue().total())
+                    .addValue("paid" + row, entry.getValue().paid());
+            row++;
+        }
+        jdbcTemplate.update(ADJUST_STATUS.formatted(rows), params);
+    }
+
+    public void rebuild() {
+        MapSqlParameterSource noParams = new MapSqlParameterSource();
+        for (String statement : REBUILD) {
+            jdbcTemplate.update(statement, noParams);
+        }
+    }
+
+    public boolean isEmpty() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM invoice_status_totals)", new MapSqlParameterSource(), Boolean.class);
+        return Boolean.TRUE.equals(empty);
+    }
+
+    public List<RevenueReportDTO.DailyRevenue> findDaily(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT day, billed_amount, invoices_issued, payments_amount, payments_count, paid_revenue, invoices_paid
+                FROM revenue_daily WHERE day BETWEEN :from AND :to ORDER BY day
+                """, range(from, to), (rs, rowNum) -> RevenueReportDTO.DailyRevenue.builder()
+                .day(rs.getObject("day", LocalDate.class))
+                .billedAmount(rs.getBigDecimal("billed_amount"))
+                .invoicesIssued(rs.getLong("invoices_issued"))
+                .paymentsAmount(rs.getBigDecimal("payments_amount"))
+                .paymentsCount(rs.getLong("payments_count"))
+                .paidRevenue(rs.getBigDecimal("paid_revenue"))
+                .invoicesPaid(rs.getLong("invoices_paid"))
+                .build());
+    }
+
+    public Map<String, BigDecimal> sumBilledByCategory(LocalDate from, LocalDate to) {
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT category, SUM(billed_amount) AS billed_amount FROM revenue_daily_category
+                WHERE day BETWEEN :from AND :to GROUP BY category ORDER BY billed_amount DESC
+                """, range(from, to), rs -> {
+            result.put(rs.getString("category"), rs.getBigDecimal("billed_amount"));
+        });
+        return result;
+    }
+
+    public List<RevenueReportDTO.MechanicRevenue> sumByMechanic(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT r.mechanic_id, u.full_name, SUM(r.billed_amount) AS billed_amount,
+                       SUM(r.paid_revenue) AS paid_revenue
+                FROM revenue_daily_mechanic r LEFT JOIN users u ON u.id = r.mechanic_id
+                WHERE r.day BETWEEN :from AND :to
+                GROUP BY r.mechanic_id, u.full_name
+                ORDER BY billed_amount DESC
+                """, range(from, to), (rs, rowNum) -> RevenueReportDTO.MechanicRevenue.builder()
+                .mechanicId(rs.getLong("mechanic_id"))
+                .mechanicName(rs.getString("full_name"))
+                .billedAmount(rs.getBigDecimal("billed_amount"))
+                .paidRevenue(rs.getBigDecimal("paid_revenue"))
+                .build());
+    }
+
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT status, invoice_count FROM invoice_status_totals ORDER BY status",
+                new MapSqlParameterSource(), rs -> {
+                    result.put(rs.getString("status"), rs.getLong("invoice_count"));
+                });
+        return result;
+    }
+
+    public BigDecimal sumOutstanding() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(total_amount - paid_amount), 0) FROM invoice_status_totals
+                WHERE status NOT IN ('PAID', 'CANCELLED')
+                """, new MapSqlParameterSource(), BigDecimal.class);
+    }
+
+    public BigDecimal sumPaidRevenue(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(paid_revenue), 0) FROM revenue_daily WHERE day BETWEEN :from AND :to",
+                range(from, to), BigDecimal.class);
+    }
+
+    /**
+     * Change to one row of invoice_status_totals.
+     */
+    public record StatusDelta(long count, BigDecimal total, BigDecimal paid) {
+
+        public StatusDelta plus(StatusDelta other) {
+            return new StatusDelta(count + other.count, total.add(other.total), paid.add(other.paid));
+        }
+
+        public StatusDelta negate() {
+            return new StatusDelta(-count, total.negate(), paid.negate());
+        }
+
+        public boolean isZero() {
+            return count == 0 && total.signum() == 0 && paid.signum() == 0;
+        }
+    }
+
+    private static MapSqlParameterSource range(LocalDate from, LocalDate to) {
+        return new MapSqlParameterSource().addValue("from", from).addValue("to", to);
+    }
+}
@@ -0,0 +1,9 @@
+package com.workshop.management.repository;
+
+import com.workshop.management.entity.Role;
+
+public interface UserAuthState {
+    Role getRole();
+
+    Boolean getEnabled();
+}
@@ -1,13 +1,22 @@
 package com.workshop.management.repository;
 
+import com.workshop.management.entity.Role;
 import com.workshop.management.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Callers of the cacheable queries read the primary, so a replica never fills the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
@@ -15,4 +24,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<User> findByRoleAndEnabledTrueOrderById(Role role);
+
+    /**
+     * Runs for every authenticated request; served from the query cache until the
+     * users table changes. The cache is local to each instance, so a write made on
+     * another instance shows up here only when the entry expires, after at most
+     * {@code second-level-cache.auth-state.ttl}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.AUTH_STATE_CACHE_REGION)
+    })
+    @Query("SELECT u.role AS role, u.enabled AS enabled FROM User u WHERE u.id = :id")
+    Optional<UserAuthState> findAuthStateById(@Param("id") Long id);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +20,20 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
     List<Vehicle> findByCustomerId(Long customerId);
 
+    long countByCustomerId(Long customerId);
+
+    boolean existsByCustomerId(Long customerId);
+
     @Query("SELECT v FROM Vehicle v WHERE " +
-            "LOWER(v.make) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(v.model) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "v.licensePlate LIKE CONCAT('%', :search, '%') OR " +
-            "v.vin LIKE CONCAT('%', :search, '%')")
-    Page<Vehicle> searchVehicles(@Param("search") String search, Pageable pageable);
+            "v.searchText LIKE CONCAT('%', :text, '%') OR " +
+            "(:code <> '' AND (v.plateNormalized LIKE CONCAT('%', :code, '%') " +
+            "OR v.vinNormalized LIKE CONCAT('%', :code, '%')))")
+    Page<Vehicle> searchVehicles(@Param("text") String text, @Param("code") String code, Pageable pageable);
+
+    @Query("SELECT v FROM Vehicle v JOIN FETCH v.customer WHERE (v.createdAt, v.id) < (:createdAt, :id) " +
+            "ORDER BY v.createdAt DESC, v.id DESC")
+    List<Vehicle> findPageBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit);
 }
@@ -1,20 +1,31 @@
 package com.workshop.management.repository;
 
+import com.workshop.management.dto.WorkOrderExportRow;
 import com.workshop.management.entity.WorkOrder;
 import com.workshop.management.entity.WorkOrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkOrderRepository extends JpaRepository<WorkOrder, Long> {
+    int EXPORT_FETCH_SIZE = 1_000;
+
     Optional<WorkOrder> findByOrderNumber(String orderNumber);
 
     List<WorkOrder> findByStatus(WorkOrderStatus status);
@@ -23,20 +34,82 @@ public interface WorkOrderRepository extends JpaRepository<WorkOrder, Long> {
 
     List<WorkOrder> findByAssignedMechanicId(Long mechanicId);
 
+    @Override
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice" })
+    Page<WorkOrder> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice",
+            "services", "services.serviceItem" })
+    @Query("SELECT wo FROM WorkOrder wo WHERE wo.id = :id")
+    Optional<WorkOrder> findDetailedById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice" })
     @Query("SELECT wo FROM WorkOrder wo WHERE wo.status = :status")
     Page<WorkOrder> findByStatus(@Param("status") WorkOrderStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice" })
+    @Query("SELECT wo FROM WorkOrder wo WHERE (wo.createdAt, wo.id) < (:createdAt, :id) " +
+            "ORDER BY wo.createdAt DESC, wo.id DESC")
+    List<WorkOrder> findPageBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit);
+
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice" })
+    @Query("SELECT wo FROM WorkOrder wo WHERE wo.status = :status AND (wo.createdAt, wo.id) < (:createdAt, :id) " +
+            "ORDER BY wo.createdAt DESC, wo.id DESC")
+    List<WorkOrder> findPageBeforeByStatus(
+            @Param("status") WorkOrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit);
+
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice" })
     @Query("SELECT wo FROM WorkOrder wo WHERE wo.scheduledDate BETWEEN :start AND :end")
     List<WorkOrder> findByScheduledDateBetween(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
 
+    @EntityGraph(attributePaths = { "vehicle", "vehicle.customer", "assignedMechanic", "invoice" })
     @Query("SELECT wo FROM WorkOrder wo ORDER BY wo.createdAt DESC")
     List<WorkOrder> findRecentWorkOrders(Pageable pageable);
 
+    @Query("SELECT wo.id AS workOrderId, wo.assignedMechanic.id AS mechanicId, " +
+            "wo.scheduledDate AS scheduledDate, wo.estimatedMinutes AS estimatedMinutes " +
+            "FROM WorkOrder wo WHERE wo.assignedMechanic IS NOT NULL AND wo.scheduledDate >= :from " +
+            "AND wo.status NOT IN :closed")
+    List<MechanicBooking> findOpenBookingsFrom(
+            @Param("from") LocalDateTime from,
+            @Param("closed") Collection<WorkOrderStatus> closed);
+
+    /**
+     * Streams every work order from a server-side cursor. Must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.workshop.management.dto.WorkOrderExportRow(wo.id, wo.orderNumber, wo.status, " +
+            "wo.createdAt, wo.scheduledDate, wo.startedAt, wo.completedAt, c.id, c.firstName, c.lastName, " +
+            "v.id, v.licensePlate, v.make, v.model, v.year, m.fullName, wo.estimatedMinutes, " +
+            "wo.laborCost, wo.partsCost, wo.servicesTotal, wo.totalCost) " +
+            "FROM WorkOrder wo JOIN wo.vehicle v JOIN v.customer c LEFT JOIN wo.assignedMechanic m ORDER BY wo.id")
+    Stream<WorkOrderExportRow> streamForExport();
+
     @Query("SELECT COUNT(wo) FROM WorkOrder wo WHERE wo.status = :status")
     long countByStatus(@Param("status") WorkOrderStatus status);
 
     @Query("SELECT wo FROM WorkOrder wo WHERE wo.vehicle.customer.id = :customerId")
     List<WorkOrder> findByCustomerId(@Param("customerId") Long customerId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkOrder wo SET " +
+            "wo.servicesTotal = (SELECT COALESCE(SUM(s.price), 0) FROM WorkOrderService s WHERE s.workOrder = wo), " +
+            "wo.totalCost = (SELECT COALESCE(SUM(s.price), 0) FROM WorkOrderService s WHERE s.workOrder = wo) " +
+            "+ COALESCE(wo.laborCost, 0) + COALESCE(wo.partsCost, 0), " +
+            "wo.version = wo.version + 1 " +
+            "WHERE wo.totalCost IS NULL")
+    int backfillTotals();
 }
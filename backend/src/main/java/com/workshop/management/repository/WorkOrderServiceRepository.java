@@ -2,13 +2,20 @@ package com.workshop.management.repository;
 
 import com.workshop.management.entity.WorkOrderService;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface WorkOrderServiceRepository extends JpaRepository<WorkOrderService, Long> {
     List<WorkOrderService> findByWorkOrderId(Long workOrderId);
 
+    @Query("SELECT s FROM WorkOrderService s JOIN FETCH s.serviceItem " +
+            "WHERE s.workOrder.id IN :workOrderIds ORDER BY s.id")
+    List<WorkOrderService> findWithServiceItemByWorkOrderIdIn(@Param("workOrderIds") Collection<Long> workOrderIds);
+
     void deleteByWorkOrderId(Long workOrderId);
 }
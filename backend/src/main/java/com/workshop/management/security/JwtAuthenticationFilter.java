@@ -1,5 +1,12 @@
 package com.workshop.management.security;
 
+import com.workshop.management.config.ReadRouting;
+import com.workshop.management.entity.Role;
+import com.workshop.management.entity.User;
+import com.workshop.management.repository.UserAuthState;
+import com.workshop.management.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +14,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -20,8 +25,11 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,15 +38,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (StringUtils.hasText(jwt)) {
+                User principal = resolvePrincipal(jwt);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, principal.getAuthorities());
+                    authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -47,6 +55,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Returns the principal for a token, verifying its signature only when it is not
+     * already cached. A verified token is accepted only while its user is enabled and
+     * still has the role recorded in the token.
+     */
+    private User resolvePrincipal(String jwt) {
+        User cached = tokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = tokenProvider.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Long userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class);
+        String role = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        // On the primary, so that the cached auth state is filled from current rows
+        UserAuthState state = ReadRouting.onPrimary(() -> userRepository.findAuthStateById(userId)).orElse(null);
+        if (state == null || !Boolean.TRUE.equals(state.getEnabled()) || !state.getRole().name().equals(role)) {
+            return null;
+        }
+
+        User principal = User.builder()
+                .username(claims.getSubject())
+                .role(Role.valueOf(role))
+                .enabled(true)
+                .build();
+        principal.setId(userId);
+        tokenCache.put(jwt, principal, claims.getExpiration().getTime());
+        return principal;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,104 @@
+package com.workshop.management.security;
+
+import com.workshop.management.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals of recently verified tokens, keyed by a SHA-256 hash of the token.
+ * Entries live until the token expires or the TTL elapses, whichever is first.
+ * User changes made on this node evict the user's entries; changes made on
+ * another node are picked up within one TTL.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.ttl:60s}") Duration ttl,
+            @Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    public User get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(String token, User principal, long tokenExpiresAt) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            // One entry at a time; with a single TTL, the soonest to expire is roughly the oldest
+            while (entries.size() >= maxEntries) {
+                if (!evictOldest()) {
+                    break;
+                }
+            }
+        }
+        entries.put(hash(token), new Entry(principal, Math.min(tokenExpiresAt, now + ttlMillis)));
+    }
+
+    /**
+     * Drops the user's cached tokens now and again once the current transaction
+     * commits, so a request racing the commit cannot cache the old state.
+     */
+    public void evictUser(String username) {
+        removeUser(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(username);
+                }
+            });
+        }
+    }
+
+    private void removeUser(String username) {
+        entries.values().removeIf(entry -> entry.principal().getUsername().equals(username));
+    }
+
+    private boolean evictOldest() {
+        Map.Entry<String, Entry> oldest = null;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            if (oldest == null || candidate.getValue().expiresAt() < oldest.getValue().expiresAt()) {
+                oldest = candidate;
+            }
+        }
+        return oldest != null && entries.remove(oldest.getKey(), oldest.getValue());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(User principal, long expiresAt) {
+    }
+}
@@ -55,7 +55,7 @@ public class AuthService {
 
         userRepository.save(user);
 
-        String token = tokenProvider.generateToken(user.getUsername());
+        String token = tokenProvider.generateToken(user);
 
         return AuthResponse.builder()
                 .token(token)
@@ -0,0 +1,170 @@
+package com.workshop.management.service;
+
+import com.workshop.management.config.ReadRouting;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent reads behind a composite view (dashboard, detail pages)
+ * concurrently on a bounded pool, each in its own read-only transaction. Reads
+ * that fail or miss the deadline are replaced by their fallback, so the view is
+ * returned partially rather than not at all.
+ */
+@Slf4j
+@Component
+public class CompositeQueryExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    public CompositeQueryExecutor(PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${composite-query.pool-size:8}") int poolSize,
+            @Value("${composite-query.queue-capacity:100}") int queueCapacity) {
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("composite-query-");
+        this.executor.setTaskDecorator(ReadRouting::propagate);
+        this.executor.initialize();
+    }
+
+    /**
+     * Starts a batch whose reads must all finish within {@code deadline}.
+     */
+    public Batch batch(Duration deadline) {
+        return new Batch(deadline);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public final class Batch {
+
+        private final long deadlineNanos;
+        private final List<Part<?>> parts = new ArrayList<>();
+        private final List<String> unavailable = new ArrayList<>();
+
+        private Batch(Duration deadline) {
+            this.deadlineNanos = System.nanoTime() + deadline.toNanos();
+        }
+
+        /**
+         * Submits one read. The returned supplier yields its result, or
+         * {@code fallback} if it failed or missed the deadline, once {@link #await()}
+         * has returned.
+         */
+        public <T> Supplier<T> submit(String name, Supplier<T> query, T fallback) {
+            CompletableFuture<T> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> run(query), executor);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            Part<T> part = new Part<>(name, future, fallback);
+            parts.add(part);
+            return part::result;
+        }
+
+        /**
+         * Runs a read in a read-only transaction whose timeout is the time left until
+         * the deadline, so a read that waited in the queue does not get the full
+         * deadline again. Timeouts are whole seconds, rounded up.
+         */
+        private <T> T run(Supplier<T> query) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new CompletionException(new TimeoutException("Deadline passed before the read started"));
+            }
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.setTimeout((int) ((remainingMillis + 999) / 1000));
+            return readOnly.execute(status -> query.get());
+        }
+
+        /**
+         * Waits for every read until the deadline and settles the ones that did not
+         * complete in time.
+         */
+        public void await() {
+            for (Part<?> part : parts) {
+                long remaining = deadlineNanos - System.nanoTime();
+                part.settle(Math.max(0, remaining));
+                if (part.failed) {
+                    unavailable.add(part.name);
+                }
+            }
+        }
+
+        public boolean isPartial() {
+            return !unavailable.isEmpty();
+        }
+
+        /**
+         * Names of the reads that fell back, in submission order.
+         */
+        public List<String> unavailable() {
+            return List.copyOf(unavailable);
+        }
+    }
+
+    private final class Part<T> {
+
+        private final String name;
+        private final CompletableFuture<T> future;
+        private final T fallback;
+        private T value;
+        private boolean failed;
+
+        private Part(String name, CompletableFuture<T> future, T fallback) {
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+        }
+
+        private void settle(long timeoutNanos) {
+            try {
+                value = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // Only stops a read that has not started; a running one ends at its transaction timeout
+                future.cancel(false);
+                log.warn("Composite query {} missed its deadline", name);
+            } catch (ExecutionException e) {
+                log.warn("Composite query {} failed", name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+            }
+            failed = true;
+            value = fallback;
+            meterRegistry.counter("composite.query.fallbacks", "query", name).increment();
+        }
+
+        private T result() {
+            return value;
+        }
+    }
+}
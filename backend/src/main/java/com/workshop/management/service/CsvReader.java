@@ -0,0 +1,97 @@
+package com.workshop.management.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader that parses one record at a time, so input of any size
+ * is read with constant memory. Quoted fields may contain commas, doubled quotes
+ * and line breaks.
+ */
+final class CsvReader implements Closeable {
+
+    static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    private final PushbackReader reader;
+    private boolean firstRecord = true;
+
+    CsvReader(Reader reader) {
+        this.reader = new PushbackReader(new BufferedReader(reader, 64 * 1024), 1);
+    }
+
+    /**
+     * Returns the next record, or {@code null} at end of input.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int length = 0;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("CSV record exceeds " + MAX_RECORD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int n = reader.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                int n = reader.read();
+                if (n != '\n') {
+                    unread(n);
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        if (firstRecord) {
+            firstRecord = false;
+            String first = fields.get(0);
+            if (first.startsWith("\uFEFF")) {
+                fields.set(0, first.substring(1));
+            }
+        }
+        return fields;
+    }
+
+    private void unread(int c) throws IOException {
+        if (c != -1) {
+            reader.unread(c);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
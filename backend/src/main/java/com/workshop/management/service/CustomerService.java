@@ -1,12 +1,18 @@
 package com.workshop.management.service;
 
+import com.workshop.management.dto.CursorPage;
 import com.workshop.management.dto.CustomerDTO;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.entity.Customer;
+import com.workshop.management.entity.SearchNormalization;
 import com.workshop.management.exception.BadRequestException;
 import com.workshop.management.exception.ResourceNotFoundException;
 import com.workshop.management.repository.CustomerRepository;
+import com.workshop.management.repository.CustomerWithVehicleCount;
+import com.workshop.management.repository.VehicleRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,33 +25,48 @@ import java.util.stream.Collectors;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final VehicleRepository vehicleRepository;
 
+    @Transactional(readOnly = true)
     public Page<CustomerDTO> getAllCustomers(Pageable pageable) {
-        return customerRepository.findAll(pageable).map(this::toDTO);
+        return customerRepository.findAllWithVehicleCount(pageable).map(this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public Page<CustomerDTO> searchCustomers(String search, Pageable pageable) {
-        return customerRepository.searchCustomers(search, pageable).map(this::toDTO);
+        return customerRepository.searchCustomers(
+                SearchNormalization.text(search.trim()), SearchNormalization.digits(search), pageable)
+                .map(this::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerDTO> getCustomersPage(KeysetCursor cursor, int size) {
+        List<CustomerWithVehicleCount> rows = customerRepository.findPageBefore(
+                cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size,
+                row -> new KeysetCursor(row.getCustomer().getCreatedAt(), row.getCustomer().getId()),
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
     public CustomerDTO getCustomerById(Long id) {
-        Customer customer = customerRepository.findById(id)
+        CustomerWithVehicleCount customer = customerRepository.findWithVehicleCountById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", id));
         return toDTO(customer);
     }
 
     @Transactional
     public CustomerDTO createCustomer(CustomerDTO dto) {
-        if (dto.getEmail() != null && customerRepository.findByEmail(dto.getEmail()).isPresent()) {
+        if (dto.getEmail() != null && customerRepository.existsByEmail(dto.getEmail())) {
             throw new BadRequestException("Email is already in use");
         }
-        if (customerRepository.findByPhone(dto.getPhone()).isPresent()) {
+        if (customerRepository.existsByPhone(dto.getPhone())) {
             throw new BadRequestException("Phone number is already in use");
         }
 
         Customer customer = toEntity(dto);
         customer = customerRepository.save(customer);
-        return toDTO(customer);
+        return toDTO(customer, 0);
     }
 
     @Transactional
@@ -64,24 +85,29 @@ public class CustomerService {
         customer.setNotes(dto.getNotes());
 
         customer = customerRepository.save(customer);
-        return toDTO(customer);
+        return toDTO(customer, vehicleRepository.countByCustomerId(id));
     }
 
     @Transactional
     public void deleteCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", id));
-        if (!customer.getVehicles().isEmpty()) {
+        if (vehicleRepository.existsByCustomerId(id)) {
             throw new BadRequestException("Cannot delete customer with associated vehicles");
         }
         customerRepository.delete(customer);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalCount() {
         return customerRepository.count();
     }
 
-    private CustomerDTO toDTO(Customer customer) {
+    private CustomerDTO toDTO(CustomerWithVehicleCount row) {
+        return toDTO(row.getCustomer(), row.getVehicleCount());
+    }
+
+    private CustomerDTO toDTO(Customer customer, long vehicleCount) {
         return CustomerDTO.builder()
                 .id(customer.getId())
                 .firstName(customer.getFirstName())
@@ -93,7 +119,7 @@ public class CustomerService {
                 .state(customer.getState())
                 .zipCode(customer.getZipCode())
                 .notes(customer.getNotes())
-                .vehicleCount(customer.getVehicles().size())
+                .vehicleCount((int) vehicleCount)
                 .build();
     }
 
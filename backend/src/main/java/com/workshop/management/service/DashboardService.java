@@ -1,34 +1,52 @@
 package com.workshop.management.service;
 
 import com.workshop.management.dto.DashboardDTO;
-import com.workshop.management.entity.WorkOrderStatus;
-import com.workshop.management.repository.CustomerRepository;
-import com.workshop.management.repository.VehicleRepository;
+import com.workshop.management.dto.WorkOrderDTO;
+import com.workshop.management.repository.DashboardRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final CustomerService customerService;
     private final WorkOrderService workOrderService;
-    private final InvoiceService invoiceService;
-    private final CustomerRepository customerRepository;
-    private final VehicleRepository vehicleRepository;
+    private final DashboardRepository dashboardRepository;
+    private final DashboardSnapshotCache snapshotCache;
+    private final CompositeQueryExecutor compositeQueryExecutor;
+
+    @Value("${dashboard.query-deadline:2s}")
+    private Duration queryDeadline;
 
     public DashboardDTO getDashboardData() {
-        return DashboardDTO.builder()
-                .totalCustomers(customerRepository.count())
-                .totalVehicles(vehicleRepository.count())
-                .pendingWorkOrders(workOrderService.countByStatus(WorkOrderStatus.PENDING))
-                .inProgressWorkOrders(workOrderService.countByStatus(WorkOrderStatus.IN_PROGRESS))
-                .completedWorkOrdersToday(workOrderService.countByStatus(WorkOrderStatus.COMPLETED))
-                .pendingInvoices(invoiceService.countPendingInvoices())
-                .monthlyRevenue(invoiceService.calculateMonthlyRevenue())
-                .outstandingBalance(invoiceService.calculateOutstandingBalance())
-                .recentWorkOrders(workOrderService.getRecentWorkOrders(5))
-                .upcomingAppointments(workOrderService.getUpcomingAppointments(7))
-                .build();
+        return snapshotCache.get(this::loadDashboardData);
+    }
+
+    private DashboardDTO loadDashboardData() {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
+
+        CompositeQueryExecutor.Batch batch = compositeQueryExecutor.batch(queryDeadline);
+        Supplier<DashboardDTO> kpis = batch.submit("kpis",
+                () -> dashboardRepository.loadKpis(monthStart, monthEnd), new DashboardDTO());
+        Supplier<List<WorkOrderDTO>> recent = batch.submit("recentWorkOrders",
+                () -> workOrderService.getRecentWorkOrders(5), List.of());
+        Supplier<List<WorkOrderDTO>> upcoming = batch.submit("upcomingAppointments",
+                () -> workOrderService.getUpcomingAppointments(7), List.of());
+        batch.await();
+
+        DashboardDTO dashboard = kpis.get();
+        dashboard.setRecentWorkOrders(recent.get());
+        dashboard.setUpcomingAppointments(upcoming.get());
+        if (batch.isPartial()) {
+            dashboard.setUnavailable(batch.unavailable());
+        }
+        return dashboard;
     }
 }
@@ -0,0 +1,78 @@
+package com.workshop.management.service;
+
+import com.workshop.management.dto.DashboardDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Shared dashboard snapshot. Concurrent callers reuse the same snapshot until it
+ * expires or a write invalidates it, and only one of them reloads it.
+ */
+@Component
+public class DashboardSnapshotCache {
+
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Snapshot current;
+
+    public DashboardSnapshotCache(@Value("${dashboard.snapshot-ttl:5s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public DashboardDTO get(Supplier<DashboardDTO> loader) {
+        Snapshot snapshot = current;
+        if (isFresh(snapshot)) {
+            return snapshot.data();
+        }
+        refreshLock.lock();
+        try {
+            snapshot = current;
+            if (isFresh(snapshot)) {
+                return snapshot.data();
+            }
+            long loadGeneration = generation.get();
+            DashboardDTO data = loader.get();
+            // Partial dashboards are served once but not shared
+            if (data.getUnavailable() == null) {
+                current = new Snapshot(data, System.nanoTime(), loadGeneration);
+            }
+            return data;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the snapshot once the current transaction commits, or immediately when
+     * called outside a transaction.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot != null
+                && snapshot.generation() == generation.get()
+                && System.nanoTime() - snapshot.loadedAt() < ttlNanos;
+    }
+
+    private record Snapshot(DashboardDTO data, long loadedAt, long generation) {
+    }
+}
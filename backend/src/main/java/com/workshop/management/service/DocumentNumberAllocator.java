@@ -0,0 +1,149 @@
+package com.workshop.management.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out work order and invoice numbers such as {@code WO-2026-000123}.
+ * Each node reserves blocks of numbers from a per-year database sequence and
+ * serves them from memory, so numbers are unique across nodes and only one
+ * round trip is made per block. A block is as large as the sequence's
+ * increment, whatever the local {@code numbering.block-size}.
+ * <p>
+ * Blocks are reserved on a small pool of their own, in autocommit. Callers
+ * already hold a connection from the main pool, and waiting on that pool for a
+ * second one could deadlock once it is exhausted.
+ */
+@Component
+public class DocumentNumberAllocator {
+
+    private static final String SEQUENCE_INCREMENT =
+            "SELECT increment FROM information_schema.sequences WHERE lower(sequence_name) = ?";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    private final int blockSize;
+    private final Map<String, Long> increments = new ConcurrentHashMap<>();
+    private final NumberSequence workOrderNumbers = new NumberSequence("WO", "work_order_number_seq");
+    private final NumberSequence invoiceNumbers = new NumberSequence("INV", "invoice_number_seq");
+
+    public DocumentNumberAllocator(DataSourceProperties dataSourceProperties,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${numbering.block-size:100}") int blockSize,
+            @Value("${numbering.pool-size:2}") int poolSize) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("numbering");
+        this.dataSource.setMaximumPoolSize(poolSize);
+        this.dataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.blockSize = blockSize;
+    }
+
+    public String nextWorkOrderNumber() {
+        return workOrderNumbers.next();
+    }
+
+    public String nextInvoiceNumber() {
+        return invoiceNumbers.next();
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    /**
+     * Reserves the next block, returned as its first and end (exclusive) numbers.
+     */
+    private long[] reserveBlock(String sequenceName) {
+        long increment = increments.computeIfAbsent(sequenceName, this::ensureSequence);
+        Long start = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+        if (start == null) {
+            throw new IllegalStateException("Sequence " + sequenceName + " returned no value");
+        }
+        return new long[] {start, start + increment};
+    }
+
+    /**
+     * Creates the sequence if needed and returns its increment. Whoever created it
+     * decided the block size; every node must use that one or blocks overlap.
+     */
+    private long ensureSequence(String sequenceName) {
+        try {
+            jdbcTemplate.execute(
+                    "CREATE SEQUENCE IF NOT EXISTS " + sequenceName + " START WITH 1 INCREMENT BY " + blockSize);
+        } catch (DataAccessException e) {
+            // Another node created the sequence concurrently
+        }
+        List<String> increment = jdbcTemplate.queryForList(SEQUENCE_INCREMENT, String.class, sequenceName);
+        if (increment.isEmpty()) {
+            throw new IllegalStateException("Sequence " + sequenceName + " was not found");
+        }
+        return Long.parseLong(increment.get(0).trim());
+    }
+
+    private final class NumberSequence {
+        private final String prefix;
+        private final String sequenceBaseName;
+        private final AtomicReference<Block> current = new AtomicReference<>();
+        private final ReentrantLock refillLock = new ReentrantLock();
+
+        private NumberSequence(String prefix, String sequenceBaseName) {
+            this.prefix = prefix;
+            this.sequenceBaseName = sequenceBaseName;
+        }
+
+        String next() {
+            int year = Year.now().getValue();
+            while (true) {
+                Block block = current.get();
+                if (block != null && block.year == year) {
+                    long number = block.next.getAndIncrement();
+                    if (number < block.end) {
+                        return String.format("%s-%d-%06d", prefix, year, number);
+                    }
+                }
+                refillLock.lock();
+                try {
+                    if (current.get() == block) {
+                        long[] range = reserveBlock(sequenceBaseName + "_" + year);
+                        current.set(new Block(year, range[0], range[1]));
+                    }
+                } finally {
+                    refillLock.unlock();
+                }
+            }
+        }
+    }
+
+    private static final class Block {
+        private final int year;
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(int year, long start, long end) {
+            this.year = year;
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
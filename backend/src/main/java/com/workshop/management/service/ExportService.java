@@ -0,0 +1,210 @@
+package com.workshop.management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.workshop.management.dto.InvoiceExportRow;
+import com.workshop.management.dto.WorkOrderExportRow;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.repository.InvoiceRepository;
+import com.workshop.management.repository.WorkOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes full exports row by row from a database cursor. Rows are constructor
+ * projections, so nothing accumulates in the persistence context and heap use
+ * stays flat regardless of table size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<Column<WorkOrderExportRow>> WORK_ORDER_COLUMNS = List.of(
+            new Column<>("id", WorkOrderExportRow::id),
+            new Column<>("order_number", WorkOrderExportRow::orderNumber),
+            new Column<>("status", WorkOrderExportRow::status),
+            new Column<>("created_at", WorkOrderExportRow::createdAt),
+            new Column<>("scheduled_date", WorkOrderExportRow::scheduledDate),
+            new Column<>("started_at", WorkOrderExportRow::startedAt),
+            new Column<>("completed_at", WorkOrderExportRow::completedAt),
+            new Column<>("customer_id", WorkOrderExportRow::customerId),
+            new Column<>("customer_first_name", WorkOrderExportRow::customerFirstName),
+            new Column<>("customer_last_name", WorkOrderExportRow::customerLastName),
+            new Column<>("vehicle_id", WorkOrderExportRow::vehicleId),
+            new Column<>("license_plate", WorkOrderExportRow::licensePlate),
+            new Column<>("vehicle_make", WorkOrderExportRow::vehicleMake),
+            new Column<>("vehicle_model", WorkOrderExportRow::vehicleModel),
+            new Column<>("vehicle_year", WorkOrderExportRow::vehicleYear),
+            new Column<>("mechanic_name", WorkOrderExportRow::mechanicName),
+            new Column<>("estimated_minutes", WorkOrderExportRow::estimatedMinutes),
+            new Column<>("labor_cost", WorkOrderExportRow::laborCost),
+            new Column<>("parts_cost", WorkOrderExportRow::partsCost),
+            new Column<>("services_total", WorkOrderExportRow::servicesTotal),
+            new Column<>("total_cost", WorkOrderExportRow::totalCost));
+
+    private static final List<Column<InvoiceExportRow>> INVOICE_COLUMNS = List.of(
+            new Column<>("id", InvoiceExportRow::id),
+            new Column<>("invoice_number", InvoiceExportRow::invoiceNumber),
+            new Column<>("work_order_number", InvoiceExportRow::workOrderNumber),
+            new Column<>("status", InvoiceExportRow::status),
+            new Column<>("issue_date", InvoiceExportRow::issueDate),
+            new Column<>("due_date", InvoiceExportRow::dueDate),
+            new Column<>("paid_date", InvoiceExportRow::paidDate),
+            new Column<>("customer_id", InvoiceExportRow::customerId),
+            new Column<>("customer_first_name", InvoiceExportRow::customerFirstName),
+            new Column<>("customer_last_name", InvoiceExportRow::customerLastName),
+            new Column<>("subtotal", InvoiceExportRow::subtotal),
+            new Column<>("tax_rate", InvoiceExportRow::taxRate),
+            new Column<>("tax_amount", InvoiceExportRow::taxAmount),
+            new Column<>("total_amount", InvoiceExportRow::totalAmount),
+            new Column<>("paid_amount", InvoiceExportRow::paidAmount),
+            new Column<>("balance_due", InvoiceExportRow::balanceDue));
+
+    private final WorkOrderRepository workOrderRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportWorkOrders(Format format, OutputStream out) {
+        try (Stream<WorkOrderExportRow> rows = workOrderRepository.streamForExport()) {
+            write(rows, WORK_ORDER_COLUMNS, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportInvoices(Format format, OutputStream out) {
+        try (Stream<InvoiceExportRow> rows = invoiceRepository.streamForExport()) {
+            write(rows, INVOICE_COLUMNS, format, out);
+        }
+    }
+
+    private <T> void write(Stream<T> rows, List<Column<T>> columns, Format format, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == Format.CSV) {
+                writeCsv(rows.iterator(), columns, writer);
+            } else {
+                writeNdjson(rows.iterator(), writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> void writeCsv(Iterator<T> rows, List<Column<T>> columns, Writer writer) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).header());
+        }
+        writer.write("\r\n");
+
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(columns.get(i).value().apply(row), writer);
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private static void writeCsvValue(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof BigDecimal decimal) {
+            writer.write(decimal.toPlainString());
+            return;
+        }
+        if (!(value instanceof CharSequence)) {
+            writer.write(value.toString());
+            return;
+        }
+
+        String text = value.toString();
+        // Spreadsheets evaluate cells starting with these as formulas
+        boolean formula = !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0;
+        boolean quote = formula || text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, Writer writer) throws IOException {
+        boolean any = rows.hasNext();
+        try (SequenceWriter sequence = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(writer)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+            }
+        }
+        if (any) {
+            writer.write('\n');
+        }
+    }
+
+    private record Column<T>(String header, Function<T, Object> value) {
+    }
+}
@@ -0,0 +1,512 @@
+package com.workshop.management.service;
+
+import com.workshop.management.dto.ImportJobDTO;
+import com.workshop.management.entity.ImportJob;
+import com.workshop.management.entity.ImportStatus;
+import com.workshop.management.entity.ImportType;
+import com.workshop.management.entity.SearchNormalization;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.exception.ResourceNotFoundException;
+import com.workshop.management.repository.ImportJobRepository;
+import com.workshop.management.repository.ImportRepository;
+import com.workshop.management.repository.ImportRepository.CustomerRow;
+import com.workshop.management.repository.ImportRepository.RowError;
+import com.workshop.management.repository.ImportRepository.VehicleRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming CSV import of customers and vehicles. Existing unique keys are loaded
+ * into memory once, so rows are deduplicated without a query per row, and valid
+ * rows are inserted in JDBC batches. Each batch commits together with the job's
+ * progress, which lets an interrupted upload be resumed by sending the same file
+ * again with the job id.
+ */
+@Slf4j
+@Service
+public class ImportService {
+
+    static final int MAX_STORED_ERRORS = 1_000;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportRepository importRepository;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ImportService(ImportJobRepository importJobRepository,
+            ImportRepository importRepository,
+            DashboardSnapshotCache dashboardSnapshotCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${imports.batch-size:500}") int batchSize) {
+        this.importJobRepository = importJobRepository;
+        this.importRepository = importRepository;
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ImportJobDTO importCustomers(InputStream in, Long resumeJobId) {
+        return run(ImportType.CUSTOMERS, in, resumeJobId, CustomerImporter::new);
+    }
+
+    public ImportJobDTO importVehicles(InputStream in, Long resumeJobId) {
+        return run(ImportType.VEHICLES, in, resumeJobId, VehicleImporter::new);
+    }
+
+    public ImportJobDTO getJob(Long id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ImportJob", id));
+        return toDTO(job);
+    }
+
+    private <R> ImportJobDTO run(ImportType type, InputStream in, Long resumeJobId,
+            Supplier<Importer<R>> importers) {
+        ImportJob job = resumeJobId != null ? resume(resumeJobId, type) : null;
+
+        try (CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> headerFields = csv.next();
+            if (headerFields == null) {
+                throw new BadRequestException("CSV input is empty");
+            }
+            CsvHeader header = new CsvHeader(headerFields);
+            validateHeader(type, header);
+
+            if (job == null) {
+                job = importJobRepository.save(ImportJob.builder().type(type).build());
+            }
+            Long jobId = job.getId();
+            Progress progress = new Progress(job.getRowsProcessed(), job.getInserted(), job.getFailed());
+
+            try {
+                Importer<R> importer = importers.get();
+                List<Parsed<R>> batch = new ArrayList<>(batchSize);
+                List<RowError> errors = new ArrayList<>();
+                long row = 0;
+                List<String> fields;
+                while ((fields = csv.next()) != null) {
+                    if (fields.size() == 1 && fields.get(0).isBlank()) {
+                        continue;
+                    }
+                    row++;
+                    if (row <= progress.processed) {
+                        continue;
+                    }
+                    try {
+                        batch.add(new Parsed<>(row, importer.parse(new CsvRow(header, fields))));
+                    } catch (RowException e) {
+                        errors.add(new RowError(row, truncate(e.getMessage())));
+                    }
+                    if (batch.size() + errors.size() >= batchSize) {
+                        flush(jobId, importer, batch, errors, progress, row);
+                    }
+                }
+                flush(jobId, importer, batch, errors, progress, row);
+            } catch (IOException | RuntimeException e) {
+                finish(jobId, ImportStatus.FAILED, "Stopped after row " + progress.processed + ": " + e.getMessage());
+                throw e;
+            }
+
+            job = finish(jobId, ImportStatus.COMPLETED, null);
+            log.info("Import {} of {} finished: {} rows, {} inserted, {} failed",
+                    jobId, type, job.getRowsProcessed(), job.getInserted(), job.getFailed());
+            return toDTO(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            dashboardSnapshotCache.invalidate();
+        }
+    }
+
+    private ImportJob resume(Long jobId, ImportType type) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("ImportJob", jobId));
+        if (job.getType() != type) {
+            throw new BadRequestException("Import job " + jobId + " is a " + job.getType() + " import");
+        }
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            throw new BadRequestException("Import job " + jobId + " has already completed");
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        job.setLastError(null);
+        return importJobRepository.save(job);
+    }
+
+    private static void validateHeader(ImportType type, CsvHeader header) {
+        if (type == ImportType.CUSTOMERS) {
+            header.require("firstname", "lastname", "phone");
+        } else {
+            header.require("make", "model", "year");
+            if (!header.hasAny("customerid", "customeremail", "customerphone")) {
+                throw new BadRequestException("CSV header needs one of customer_id, customer_email or customer_phone");
+            }
+        }
+    }
+
+    private <R> void flush(Long jobId, Importer<R> importer, List<Parsed<R>> batch, List<RowError> errors,
+            Progress progress, long row) {
+        if (batch.isEmpty() && errors.isEmpty()) {
+            return;
+        }
+        List<R> values = batch.stream().map(Parsed::value).toList();
+        try {
+            commit(jobId, progress, row, () -> {
+                if (!values.isEmpty()) {
+                    importer.insert(values);
+                }
+            }, batch.size(), errors);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the keys; fall back to one row at a time
+            int inserted = 0;
+            for (Parsed<R> parsed : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> importer.insert(List.of(parsed.value())));
+                    inserted++;
+                } catch (DataIntegrityViolationException ex) {
+                    errors.add(new RowError(parsed.row(), "Conflicts with an existing record"));
+                }
+            }
+            errors.sort(Comparator.comparingLong(RowError::row));
+            commit(jobId, progress, row, () -> { }, inserted, errors);
+        }
+        batch.clear();
+        errors.clear();
+    }
+
+    private void commit(Long jobId, Progress progress, long row, Runnable insert, int inserted,
+            List<RowError> errors) {
+        int storable = (int) Math.max(0, Math.min(errors.size(), MAX_STORED_ERRORS - progress.failed));
+        List<RowError> stored = errors.subList(0, storable);
+        transactionTemplate.executeWithoutResult(status -> {
+            insert.run();
+            importRepository.insertErrors(jobId, stored);
+            int updated = importJobRepository.advance(jobId, progress.processed, row, inserted, errors.size(),
+                    LocalDateTime.now());
+            if (updated == 0) {
+                throw new BadRequestException("Import job " + jobId + " is being resumed by another request");
+            }
+        });
+        progress.processed = row;
+        progress.inserted += inserted;
+        progress.failed += errors.size();
+    }
+
+    private ImportJob finish(Long jobId, ImportStatus status, String error) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("ImportJob", jobId));
+        job.setStatus(status);
+        job.setLastError(error != null ? truncate(error) : null);
+        if (status == ImportStatus.COMPLETED) {
+            job.setCompletedAt(LocalDateTime.now());
+        }
+        return importJobRepository.save(job);
+    }
+
+    private ImportJobDTO toDTO(ImportJob job) {
+        List<ImportJobDTO.RowError> errors = importRepository.findErrors(job.getId(), MAX_STORED_ERRORS).stream()
+                .map(error -> ImportJobDTO.RowError.builder().row(error.row()).message(error.message()).build())
+                .toList();
+        return ImportJobDTO.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .rowsProcessed(job.getRowsProcessed())
+                .inserted(job.getInserted())
+                .failed(job.getFailed())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .errors(errors)
+                .build();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Unknown error";
+        }
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private interface Importer<R> {
+        R parse(CsvRow row);
+
+        void insert(List<R> rows);
+    }
+
+    private class CustomerImporter implements Importer<CustomerRow> {
+
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+
+        CustomerImporter() {
+            importRepository.forEachCustomerKey(rs -> {
+                String email = rs.getString("email");
+                if (email != null) {
+                    emails.add(email.toLowerCase(Locale.ROOT));
+                }
+                phones.add(SearchNormalization.digits(rs.getString("phone")));
+            });
+        }
+
+        @Override
+        public CustomerRow parse(CsvRow row) {
+            String firstName = row.required("firstname", 100);
+            String lastName = row.required("lastname", 100);
+            String phone = row.required("phone", 20);
+            String email = row.optional("email", 255);
+            CustomerRow customer = new CustomerRow(firstName, lastName, email, phone,
+                    row.optional("address", 255), row.optional("city", 100), row.optional("state", 50),
+                    row.optional("zipcode", 20), row.optional("notes", Integer.MAX_VALUE));
+
+            if (email != null && !EMAIL.matcher(email).matches()) {
+                throw new RowException("Invalid email: " + email);
+            }
+            String phoneKey = SearchNormalization.digits(phone);
+            if (phoneKey.isEmpty()) {
+                throw new RowException("Phone number has no digits");
+            }
+            String emailKey = email != null ? email.toLowerCase(Locale.ROOT) : null;
+            if (emailKey != null && emails.contains(emailKey)) {
+                throw new RowException("Email is already in use");
+            }
+            if (phones.contains(phoneKey)) {
+                throw new RowException("Phone number is already in use");
+            }
+            if (emailKey != null) {
+                emails.add(emailKey);
+            }
+            phones.add(phoneKey);
+            return customer;
+        }
+
+        @Override
+        public void insert(List<CustomerRow> rows) {
+            importRepository.insertCustomers(rows);
+        }
+    }
+
+    private class VehicleImporter implements Importer<VehicleRow> {
+
+        private final Set<Long> customerIds = new HashSet<>();
+        private final Map<String, Long> customersByEmail = new HashMap<>();
+        private final Map<String, Long> customersByPhone = new HashMap<>();
+        private final Set<String> vins = new HashSet<>();
+        private final Set<String> plates = new HashSet<>();
+
+        VehicleImporter() {
+            importRepository.forEachCustomerKey(rs -> {
+                long id = rs.getLong("id");
+                customerIds.add(id);
+                String email = rs.getString("email");
+                if (email != null) {
+                    customersByEmail.putIfAbsent(email.toLowerCase(Locale.ROOT), id);
+                }
+                customersByPhone.putIfAbsent(SearchNormalization.digits(rs.getString("phone")), id);
+            });
+            importRepository.forEachVehicleKey(rs -> {
+                String vin = rs.getString("vin");
+                if (vin != null) {
+                    vins.add(SearchNormalization.code(vin));
+                }
+                String plate = rs.getString("license_plate");
+                if (plate != null) {
+                    plates.add(SearchNormalization.code(plate));
+                }
+            });
+        }
+
+        @Override
+        public VehicleRow parse(CsvRow row) {
+            Long customerId = resolveCustomer(row);
+            String make = row.required("make", 50);
+            String model = row.required("model", 50);
+            Integer year = row.integer("year", 1886, Year.now().getValue() + 1);
+            if (year == null) {
+                throw new RowException("year is required");
+            }
+            String vin = row.optional("vin", 17);
+            String plate = row.optional("licenseplate", 20);
+            VehicleRow vehicle = new VehicleRow(customerId, vin, make, model, year, row.optional("color", 30),
+                    plate, row.integer("mileage", 0, Integer.MAX_VALUE), row.optional("notes", Integer.MAX_VALUE));
+
+            String vinKey = vin != null ? SearchNormalization.code(vin) : null;
+            String plateKey = plate != null ? SearchNormalization.code(plate) : null;
+            if (vinKey != null && vins.contains(vinKey)) {
+                throw new RowException("VIN is already registered");
+            }
+            if (plateKey != null && plates.contains(plateKey)) {
+                throw new RowException("License plate is already registered");
+            }
+            if (vinKey != null) {
+                vins.add(vinKey);
+            }
+            if (plateKey != null) {
+                plates.add(plateKey);
+            }
+            return vehicle;
+        }
+
+        private Long resolveCustomer(CsvRow row) {
+            String id = row.optional("customerid", 20);
+            if (id != null) {
+                Long customerId = parseLong(id);
+                if (customerId == null || !customerIds.contains(customerId)) {
+                    throw new RowException("Unknown customer id: " + id);
+                }
+                return customerId;
+            }
+            String email = row.optional("customeremail", 255);
+            if (email != null) {
+                Long customerId = customersByEmail.get(email.toLowerCase(Locale.ROOT));
+                if (customerId == null) {
+                    throw new RowException("No customer with email " + email);
+                }
+                return customerId;
+            }
+            String phone = row.optional("customerphone", 20);
+            if (phone != null) {
+                Long customerId = customersByPhone.get(SearchNormalization.digits(phone));
+                if (customerId == null) {
+                    throw new RowException("No customer with phone " + phone);
+                }
+                return customerId;
+            }
+            throw new RowException("Row has no customer_id, customer_email or customer_phone");
+        }
+
+        @Override
+        public void insert(List<VehicleRow> rows) {
+            importRepository.insertVehicles(rows);
+        }
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Column positions by name. Names are matched ignoring case and punctuation,
+     * so {@code first_name}, {@code First Name} and {@code firstName} are the same.
+     */
+    private static final class CsvHeader {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvHeader(List<String> fields) {
+            for (int i = 0; i < fields.size(); i++) {
+                columns.putIfAbsent(normalize(fields.get(i)), i);
+            }
+        }
+
+        void require(String... names) {
+            List<String> missing = Arrays.stream(names).filter(name -> !columns.containsKey(name)).toList();
+            if (!missing.isEmpty()) {
+                throw new BadRequestException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+        }
+
+        boolean hasAny(String... names) {
+            return Arrays.stream(names).anyMatch(columns::containsKey);
+        }
+
+        Integer indexOf(String name) {
+            return columns.get(name);
+        }
+
+        private static String normalize(String name) {
+            return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record CsvRow(CsvHeader header, List<String> fields) {
+
+        String optional(String name, int maxLength) {
+            Integer index = header.indexOf(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.length() > maxLength) {
+                throw new RowException(name + " is longer than " + maxLength + " characters");
+            }
+            return value;
+        }
+
+        String required(String name, int maxLength) {
+            String value = optional(name, maxLength);
+            if (value == null) {
+                throw new RowException(name + " is required");
+            }
+            return value;
+        }
+
+        Integer integer(String name, int min, int max) {
+            String value = optional(name, 11);
+            if (value == null) {
+                return null;
+            }
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed < min || parsed > max) {
+                    throw new RowException(name + " must be between " + min + " and " + max);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                throw new RowException(name + " is not a number: " + value);
+            }
+        }
+    }
+
+    private record Parsed<R>(long row, R value) {
+    }
+
+    private static final class Progress {
+        private long processed;
+        private long inserted;
+        private long failed;
+
+        Progress(long processed, long inserted, long failed) {
+            this.processed = processed;
+            this.inserted = inserted;
+            this.failed = failed;
+        }
+    }
+
+    private static final class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
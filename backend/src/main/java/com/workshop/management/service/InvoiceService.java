@@ -1,16 +1,22 @@
 package com.workshop.management.service;
 
+import com.workshop.management.dto.CursorPage;
 import com.workshop.management.dto.InvoiceDTO;
+import com.workshop.management.dto.InvoiceEvent;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.entity.Invoice;
 import com.workshop.management.entity.InvoiceStatus;
 import com.workshop.management.entity.WorkOrder;
 import com.workshop.management.entity.WorkOrderStatus;
 import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.exception.ConflictException;
 import com.workshop.management.exception.ResourceNotFoundException;
 import com.workshop.management.repository.InvoiceRepository;
+import com.workshop.management.repository.RevenueRollupRepository;
 import com.workshop.management.repository.WorkOrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,21 +33,40 @@ public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final WorkOrderRepository workOrderRepository;
-
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final DocumentNumberAllocator numberAllocator;
+    private final OutboxPublisher outboxPublisher;
+    private final RevenueRollupService revenueRollupService;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final OptimisticRetry optimisticRetry;
+
+    @Transactional(readOnly = true)
     public Page<InvoiceDTO> getAllInvoices(Pageable pageable) {
-        return invoiceRepository.findAll(pageable).map(this::toDTO);
+        return invoiceRepository.findAll(pageable).map(InvoiceService::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public Page<InvoiceDTO> getInvoicesByStatus(InvoiceStatus status, Pageable pageable) {
-        return invoiceRepository.findByStatus(status, pageable).map(this::toDTO);
+        return invoiceRepository.findByStatus(status, pageable).map(InvoiceService::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceDTO> getInvoicesPage(InvoiceStatus status, KeysetCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Invoice> rows = status != null
+                ? invoiceRepository.findPageBeforeByStatus(status, cursor.getCreatedAt(), cursor.getId(), limit)
+                : invoiceRepository.findPageBefore(cursor.getCreatedAt(), cursor.getId(), limit);
+        return CursorPage.of(rows, size, page -> page.stream().map(InvoiceService::toDTO).collect(Collectors.toList()));
     }
 
+    @Transactional(readOnly = true)
     public InvoiceDTO getInvoiceById(Long id) {
         Invoice invoice = invoiceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Invoice", id));
         return toDTO(invoice);
     }
 
+    @Transactional(readOnly = true)
     public InvoiceDTO getInvoiceByWorkOrderId(Long workOrderId) {
         Invoice invoice = invoiceRepository.findByWorkOrderId(workOrderId)
                 .orElseThrow(
@@ -62,6 +88,7 @@ public class InvoiceService {
         }
 
         Invoice invoice = Invoice.builder()
+                .invoiceNumber(numberAllocator.nextInvoiceNumber())
                 .workOrder(workOrder)
                 .subtotal(workOrder.getTotalCost())
                 .status(InvoiceStatus.DRAFT)
@@ -71,24 +98,31 @@ public class InvoiceService {
 
         invoice.calculateTotals();
         invoice = invoiceRepository.save(invoice);
+        outboxPublisher.publish(InvoiceEvent.of(InvoiceEvent.Type.CREATED, invoice, null));
+        revenueRollupService.invoiceCreated(invoice);
+        dashboardSnapshotCache.invalidate();
         return toDTO(invoice);
     }
 
     @Transactional
-    public InvoiceDTO updateInvoice(Long id, InvoiceDTO dto) {
+    public InvoiceDTO updateInvoice(Long id, InvoiceDTO dto, Long expectedVersion) {
         Invoice invoice = invoiceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Invoice", id));
+        ConflictException.checkVersion("Invoice", id, expectedVersion, invoice.getVersion());
 
         if (invoice.getStatus() == InvoiceStatus.PAID) {
             throw new BadRequestException("Cannot update a paid invoice");
         }
 
+        RevenueRollupService.InvoiceSnapshot before = RevenueRollupService.InvoiceSnapshot.of(invoice);
         invoice.setTaxRate(dto.getTaxRate());
         invoice.setDueDate(dto.getDueDate());
         invoice.setNotes(dto.getNotes());
         invoice.calculateTotals();
 
-        invoice = invoiceRepository.save(invoice);
+        invoice = invoiceRepository.saveAndFlush(invoice);
+        revenueRollupService.invoiceChanged(before, invoice);
+        dashboardSnapshotCache.invalidate();
         return toDTO(invoice);
     }
 
@@ -101,48 +135,67 @@ public class InvoiceService {
             throw new BadRequestException("Can only send draft invoices");
         }
 
+        RevenueRollupService.InvoiceSnapshot before = RevenueRollupService.InvoiceSnapshot.of(invoice);
         invoice.setStatus(InvoiceStatus.SENT);
         invoice.setIssueDate(LocalDate.now());
         invoice = invoiceRepository.save(invoice);
+        revenueRollupService.invoiceSent(before, invoice);
+        dashboardSnapshotCache.invalidate();
         return toDTO(invoice);
     }
 
-    @Transactional
-    public InvoiceDTO recordPayment(Long id, BigDecimal amount) {
-        Invoice invoice = invoiceRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Invoice", id));
-
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    /**
+     * Adds a payment to the invoice. Concurrent payments are retried against the
+     * fresh balance unless the caller named the version it expects.
+     */
+    public InvoiceDTO recordPayment(Long id, BigDecimal amount, Long expectedVersion) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BadRequestException("Payment amount must be positive");
         }
+        return expectedVersion == null
+                ? optimisticRetry.execute(() -> doRecordPayment(id, amount, null))
+                : optimisticRetry.executeOnce(() -> doRecordPayment(id, amount, expectedVersion));
+    }
+
+    private InvoiceDTO doRecordPayment(Long id, BigDecimal amount, Long expectedVersion) {
+        Invoice invoice = invoiceRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice", id));
+        ConflictException.checkVersion("Invoice", id, expectedVersion, invoice.getVersion());
 
         if (amount.compareTo(invoice.getBalanceDue()) > 0) {
             throw new BadRequestException("Payment amount exceeds balance due");
         }
 
+        RevenueRollupService.InvoiceSnapshot before = RevenueRollupService.InvoiceSnapshot.of(invoice);
         invoice.recordPayment(amount);
-        invoice = invoiceRepository.save(invoice);
+        invoice = invoiceRepository.saveAndFlush(invoice);
+        outboxPublisher.publish(InvoiceEvent.of(InvoiceEvent.Type.PAYMENT_RECORDED, invoice, amount));
+        revenueRollupService.paymentRecorded(before, invoice, amount);
+        dashboardSnapshotCache.invalidate();
         return toDTO(invoice);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateMonthlyRevenue() {
         LocalDate start = LocalDate.now().withDayOfMonth(1);
         LocalDate end = start.plusMonths(1).minusDays(1);
-        BigDecimal revenue = invoiceRepository.calculateRevenueForPeriod(start, end);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return revenueRollupRepository.sumPaidRevenue(start, end);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateOutstandingBalance() {
-        BigDecimal balance = invoiceRepository.calculateOutstandingBalance();
-        return balance != null ? balance : BigDecimal.ZERO;
+        return revenueRollupRepository.sumOutstanding();
     }
 
+    @Transactional(readOnly = true)
     public long countPendingInvoices() {
-        return invoiceRepository.countByStatus(InvoiceStatus.SENT) +
-                invoiceRepository.countByStatus(InvoiceStatus.PARTIALLY_PAID);
+        Map<String, Long> counts = revenueRollupRepository.countByStatus();
+        return counts.getOrDefault(InvoiceStatus.SENT.name(), 0L)
+                + counts.getOrDefault(InvoiceStatus.PARTIALLY_PAID.name(), 0L)
+                + counts.getOrDefault(InvoiceStatus.OVERDUE.name(), 0L);
     }
 
-    private InvoiceDTO toDTO(Invoice invoice) {
+    static InvoiceDTO toDTO(Invoice invoice) {
         WorkOrder workOrder = invoice.getWorkOrder();
         return InvoiceDTO.builder()
                 .id(invoice.getId())
@@ -162,6 +215,7 @@ public class InvoiceService {
                 .dueDate(invoice.getDueDate())
                 .paidDate(invoice.getPaidDate())
                 .notes(invoice.getNotes())
+                .version(invoice.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,180 @@
+package com.workshop.management.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory interval index of mechanic bookings, ordered by start time per
+ * mechanic. All operations are guarded by a read/write lock.
+ */
+final class MechanicScheduleIndex {
+
+    record Booking(long workOrderId, long mechanicId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /** Outcome of {@link #tryReserve}; {@code previous} is the booking it replaced, if any. */
+    record Reservation(boolean accepted, Booking previous) {
+    }
+
+    private static final Comparator<Booking> BY_START =
+            Comparator.comparing(Booking::start).thenComparingLong(Booking::workOrderId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, NavigableSet<Booking>> byMechanic = new HashMap<>();
+    private Map<Long, Booking> byWorkOrder = new HashMap<>();
+    private Duration longest = Duration.ZERO;
+
+    void replaceAll(Collection<Booking> bookings) {
+        Map<Long, NavigableSet<Booking>> mechanics = new HashMap<>();
+        Map<Long, Booking> workOrders = new HashMap<>();
+        Duration max = Duration.ZERO;
+        for (Booking booking : bookings) {
+            mechanics.computeIfAbsent(booking.mechanicId(), id -> new TreeSet<>(BY_START)).add(booking);
+            workOrders.put(booking.workOrderId(), booking);
+            max = maxDuration(max, booking);
+        }
+        lock.writeLock().lock();
+        try {
+            byMechanic = mechanics;
+            byWorkOrder = workOrders;
+            longest = max;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bookings of the mechanic that overlap {@code [from, to)}, ordered by start.
+     */
+    List<Booking> overlapping(long mechanicId, LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Booking> bookings = byMechanic.get(mechanicId);
+            if (bookings == null) {
+                return List.of();
+            }
+            List<Booking> result = new ArrayList<>();
+            for (Booking booking : bookings.subSet(probe(from.minus(longest)), true, probe(to), false)) {
+                if (booking.end().isAfter(from)) {
+                    result.add(booking);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Books the interval unless it overlaps another work order's booking. A booking
+     * the same work order already holds is replaced.
+     */
+    Reservation tryReserve(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            NavigableSet<Booking> bookings = byMechanic.get(booking.mechanicId());
+            if (bookings != null) {
+                for (Booking other : bookings.subSet(probe(booking.start().minus(longest)), true,
+                        probe(booking.end()), false)) {
+                    if (other.workOrderId() != booking.workOrderId() && other.end().isAfter(booking.start())) {
+                        return new Reservation(false, null);
+                    }
+                }
+            }
+            return new Reservation(true, putLocked(booking));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            putLocked(booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long workOrderId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(workOrderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a booking to another work order id and returns the moved booking. If
+     * the booking is gone, for example after a rebuild, it is added again.
+     */
+    Booking rekey(Booking booking, long workOrderId) {
+        Booking moved = new Booking(workOrderId, booking.mechanicId(), booking.start(), booking.end());
+        lock.writeLock().lock();
+        try {
+            if (booking.equals(byWorkOrder.get(booking.workOrderId()))) {
+                removeLocked(booking.workOrderId());
+            }
+            putLocked(moved);
+            return moved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reverts a reservation, unless the work order has been rebooked since.
+     */
+    void undo(Booking reserved, Booking previous) {
+        lock.writeLock().lock();
+        try {
+            if (!reserved.equals(byWorkOrder.get(reserved.workOrderId()))) {
+                return;
+            }
+            removeLocked(reserved.workOrderId());
+            if (previous != null) {
+                putLocked(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Booking putLocked(Booking booking) {
+        Booking previous = removeLocked(booking.workOrderId());
+        byMechanic.computeIfAbsent(booking.mechanicId(), id -> new TreeSet<>(BY_START)).add(booking);
+        byWorkOrder.put(booking.workOrderId(), booking);
+        longest = maxDuration(longest, booking);
+        return previous;
+    }
+
+    private Booking removeLocked(long workOrderId) {
+        Booking previous = byWorkOrder.remove(workOrderId);
+        if (previous != null) {
+            NavigableSet<Booking> bookings = byMechanic.get(previous.mechanicId());
+            if (bookings != null) {
+                bookings.remove(previous);
+            }
+        }
+        return previous;
+    }
+
+    private static Booking probe(LocalDateTime start) {
+        return new Booking(Long.MIN_VALUE, 0, start, start);
+    }
+
+    private static Duration maxDuration(Duration current, Booking booking) {
+        Duration duration = Duration.between(booking.start(), booking.end());
+        return duration.compareTo(current) > 0 ? duration : current;
+    }
+}
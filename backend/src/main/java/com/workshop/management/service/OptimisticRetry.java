@@ -0,0 +1,86 @@
+package com.workshop.management.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and, when its optimistic lock
+ * check fails at commit, runs it again against fresh state a bounded number of
+ * times. Only for work that re-validates everything it reads, so that a retry
+ * is indistinguishable from the request arriving a moment later.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Counter retries;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${optimistic-retry.max-attempts:3}") int maxAttempts,
+            @Value("${optimistic-retry.backoff:20ms}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+        this.retries = meterRegistry.counter("optimistic.lock.retries");
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        return execute(work, maxAttempts);
+    }
+
+    /**
+     * Runs the work in a transaction without retrying, for requests that named the
+     * version they expect.
+     */
+    public <T> T executeOnce(Supplier<T> work) {
+        return execute(work, 1);
+    }
+
+    private <T> T execute(Supplier<T> work, int attempts) {
+        // A caller's transaction can only be retried as a whole, by the caller
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Optimistic lock conflict, retrying (attempt {} of {})", attempt + 1, attempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        // Jittered so that the requests that collided do not collide again
+        long ceiling = backoff.toMillis() * attempt;
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
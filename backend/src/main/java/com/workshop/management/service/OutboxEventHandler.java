@@ -0,0 +1,15 @@
+package com.workshop.management.service;
+
+import com.workshop.management.entity.OutboxEvent;
+
+/**
+ * Consumer of outbox events. Delivery is at least once: an event is handed to
+ * every supporting handler again when any of them fails, so handlers must be
+ * idempotent, for example by keying on the event id.
+ */
+public interface OutboxEventHandler {
+
+    boolean supports(String eventType);
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,55 @@
+package com.workshop.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workshop.management.dto.InvoiceEvent;
+import com.workshop.management.dto.WorkOrderEvent;
+import com.workshop.management.entity.OutboxEvent;
+import com.workshop.management.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends domain events to the outbox as part of the caller's transaction, so an
+ * event exists if and only if the change that produced it committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    public static final String WORK_ORDER = "WorkOrder";
+    public static final String INVOICE = "Invoice";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(WorkOrderEvent event) {
+        append(WORK_ORDER, event.getWorkOrderId(), "workorder." + event.getType().name().toLowerCase(), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(InvoiceEvent event) {
+        append(INVOICE, event.getInvoiceId(), "invoice." + event.getType().name().toLowerCase(), event);
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(json)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+}
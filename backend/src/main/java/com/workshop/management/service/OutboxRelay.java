@@ -0,0 +1,219 @@
+package com.workshop.management.service;
+
+import com.workshop.management.entity.OutboxEvent;
+import com.workshop.management.entity.OutboxStatus;
+import com.workshop.management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches and hands each event to the matching handlers.
+ * Failed deliveries are retried with exponential backoff until
+ * {@code outbox.relay.max-attempts} is reached, after which the event is parked
+ * as {@link OutboxStatus#FAILED}.
+ * <p>
+ * A batch is claimed in a short transaction that leases its events by pushing
+ * {@code nextAttemptAt} past the lease, so no connection or row lock is held
+ * while handlers call out. Outcomes are written in a second short transaction,
+ * only for events whose lease is still ours. Events of a relay that dies
+ * mid-batch become due again when the lease runs out.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration retention;
+    private final Duration lease;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter published;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer dispatchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            List<OutboxEventHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.relay.initial-backoff:5s}") Duration initialBackoff,
+            @Value("${outbox.retention:7d}") Duration retention,
+            @Value("${outbox.relay.lease:PT2M}") Duration lease) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.retention = retention;
+        this.lease = lease;
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.published = meterRegistry.counter("outbox.deliveries", "result", "published");
+        this.retried = meterRegistry.counter("outbox.deliveries", "result", "retry");
+        this.failed = meterRegistry.counter("outbox.deliveries", "result", "failed");
+        this.dispatchTimer = meterRegistry.timer("outbox.dispatch");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:PT1S}")
+    public void relay() {
+        int processed;
+        do {
+            processed = relayBatch();
+        } while (processed == batchSize);
+        updateLagMetrics();
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 3 * * *}")
+    public void deletePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(
+                status -> outboxEventRepository.deletePublishedBefore(OutboxStatus.PUBLISHED, cutoff));
+        log.debug("Deleted {} published outbox events older than {}", deleted, cutoff);
+    }
+
+    private int relayBatch() {
+        LocalDateTime leaseUntil = LocalDateTime.now().plus(lease).truncatedTo(ChronoUnit.MILLIS);
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch(leaseUntil));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Stop starting deliveries halfway through the lease, so the last ones finish within it
+        LocalDateTime stopAt = LocalDateTime.now().plus(lease.dividedBy(2));
+        Map<Long, Exception> outcomes = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            if (LocalDateTime.now().isAfter(stopAt)) {
+                break;
+            }
+            try {
+                dispatchTimer.recordCallable(() -> {
+                    dispatch(event);
+                    return null;
+                });
+                outcomes.put(event.getId(), null);
+            } catch (Exception e) {
+                outcomes.put(event.getId(), e);
+            }
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> recordOutcomes(ids, outcomes, leaseUntil));
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claimBatch(LocalDateTime leaseUntil) {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(LocalDateTime.now(), batchSize);
+        batch.forEach(event -> event.setNextAttemptAt(leaseUntil));
+        return batch;
+    }
+
+    /**
+     * Applies delivery results. Events that were not attempted are released for the
+     * next poll, and events whose lease expired and was taken over are left alone.
+     */
+    private void recordOutcomes(List<Long> ids, Map<Long, Exception> outcomes, LocalDateTime leaseUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : outboxEventRepository.lockAllById(ids)) {
+            if (event.getStatus() != OutboxStatus.PENDING || !leaseUntil.equals(event.getNextAttemptAt())) {
+                continue;
+            }
+            if (!outcomes.containsKey(event.getId())) {
+                event.setNextAttemptAt(now);
+                continue;
+            }
+            Exception error = outcomes.get(event.getId());
+            if (error == null) {
+                event.setStatus(OutboxStatus.PUBLISHED);
+                event.setPublishedAt(now);
+                event.setLastError(null);
+                published.increment();
+            } else {
+                scheduleRetry(event, error, now);
+            }
+        }
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        for (OutboxEventHandler handler : handlers) {
+            if (handler.supports(event.getEventType())) {
+                handler.handle(event);
+            }
+        }
+    }
+
+    private void scheduleRetry(OutboxEvent event, Exception cause, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(cause.toString()));
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            failed.increment();
+            log.warn("Outbox event {} ({}) failed after {} attempts", event.getId(), event.getEventType(),
+                    attempts, cause);
+            return;
+        }
+        event.setNextAttemptAt(now.plus(backoff(attempts)));
+        retried.increment();
+        log.debug("Outbox event {} delivery failed, attempt {}: {}", event.getId(), attempts, cause.toString());
+    }
+
+    /**
+     * Doubles per attempt up to {@link #MAX_BACKOFF}, with up to 20% jitter so
+     * events that failed together do not retry in lockstep.
+     */
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(MAX_BACKOFF) > 0) {
+            delay = MAX_BACKOFF;
+        }
+        long jitterMillis = ThreadLocalRandom.current().nextLong(delay.toMillis() / 5 + 1);
+        return delay.plusMillis(jitterMillis);
+    }
+
+    private void updateLagMetrics() {
+        pending.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        lagSeconds.set(outboxEventRepository.findFirstByStatusOrderByIdAsc(OutboxStatus.PENDING)
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toSeconds())
+                .orElse(0L));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,132 @@
+package com.workshop.management.service;
+
+import com.workshop.management.entity.InvoiceStatus;
+import com.workshop.management.repository.RevenueRollupRepository.StatusDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves sent and partially paid invoices past their due date to OVERDUE. Each
+ * chunk is one {@code UPDATE ... RETURNING} in its own short transaction, and a
+ * transaction-scoped advisory lock keeps other nodes from sweeping at the same time.
+ * Swept rows get a new version, so edits that read them earlier fail their optimistic check.
+ * The SQL is PostgreSQL-only; on any other database the sweep does nothing.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "invoices.overdue-sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueInvoiceSweeper {
+
+    private static final long ADVISORY_LOCK_KEY = 7_310_214_001L;
+
+    private static final String MARK_OVERDUE = """
+            WITH due AS (
+                SELECT id, status FROM invoices
+                WHERE status IN ('SENT', 'PARTIALLY_PAID') AND due_date < ?
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            UPDATE invoices i SET status = 'OVERDUE', version = i.version + 1, updated_at = LOCALTIMESTAMP
+            FROM due WHERE i.id = due.id
+            RETURNING due.status AS previous_status, i.total_amount, i.paid_amount
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean supported;
+    private final TransactionTemplate chunkTransaction;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final RevenueRollupService revenueRollupService;
+    private final int chunkSize;
+    private final Timer runTimer;
+    private final Counter markedCounter;
+
+    public OverdueInvoiceSweeper(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            DashboardSnapshotCache dashboardSnapshotCache,
+            RevenueRollupService revenueRollupService,
+            MeterRegistry meterRegistry,
+            @Value("${invoices.overdue-sweep.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.supported = dialect instanceof PostgreSQLDialect;
+        if (!supported) {
+            log.warn("Overdue invoice sweep needs PostgreSQL and is disabled on {}", dialect.getClass().getSimpleName());
+        }
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+        this.revenueRollupService = revenueRollupService;
+        this.chunkSize = chunkSize;
+        this.runTimer = meterRegistry.timer("invoices.overdue.sweep");
+        this.markedCounter = meterRegistry.counter("invoices.overdue.marked");
+    }
+
+    @Scheduled(cron = "${invoices.overdue-sweep.cron:0 5 * * * *}")
+    public void sweep() {
+        if (!supported) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        long startedAt = System.nanoTime();
+        int processed = 0;
+        int chunks = 0;
+        Integer marked;
+        do {
+            marked = chunkTransaction.execute(status -> markChunk(today));
+            if (marked == null) {
+                log.debug("Overdue invoice sweep skipped, another node holds the lock");
+                break;
+            }
+            processed += marked;
+            chunks++;
+        } while (marked == chunkSize);
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        markedCounter.increment(processed);
+        if (processed > 0) {
+            dashboardSnapshotCache.invalidate();
+        }
+        log.info("Overdue invoice sweep marked {} invoices in {} chunks in {} ms",
+                processed, chunks, elapsedNanos / 1_000_000);
+    }
+
+    /**
+     * Returns how many invoices were marked overdue, or null if another node is
+     * sweeping.
+     */
+    private Integer markChunk(LocalDate today) {
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return null;
+        }
+        Map<InvoiceStatus, StatusDelta> moved = new EnumMap<>(InvoiceStatus.class);
+        jdbcTemplate.query(MARK_OVERDUE, rs -> {
+            moved.merge(InvoiceStatus.valueOf(rs.getString("previous_status")),
+                    new StatusDelta(1, rs.getBigDecimal("total_amount"), rs.getBigDecimal("paid_amount")),
+                    StatusDelta::plus);
+        }, today, chunkSize);
+
+        revenueRollupService.statusMoved(moved, InvoiceStatus.OVERDUE);
+        return (int) moved.values().stream().mapToLong(StatusDelta::count).sum();
+    }
+}
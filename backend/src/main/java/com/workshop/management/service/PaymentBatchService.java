@@ -0,0 +1,317 @@
+package com.workshop.management.service;
+
+import com.workshop.management.dto.InvoiceEvent;
+import com.workshop.management.dto.PaymentBatchResultDTO;
+import com.workshop.management.dto.PaymentBatchResultDTO.LineResult;
+import com.workshop.management.dto.PaymentBatchResultDTO.Outcome;
+import com.workshop.management.dto.PaymentLineDTO;
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.InvoiceStatus;
+import com.workshop.management.entity.Payment;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.repository.InvoiceRepository;
+import com.workshop.management.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies settlement files of payments. Lines are validated and deduplicated by
+ * reference up front, then applied in chunks: each chunk looks up its invoices
+ * and already recorded references with one query each, applies the payments in
+ * input order so several payments to one invoice see each other's balance, and
+ * commits together with its rollup and outbox entries. A chunk that collides
+ * with a concurrent change to one of its invoices is rerun against fresh state.
+ */
+@Slf4j
+@Service
+public class PaymentBatchService {
+
+    private static final List<String> CSV_COLUMNS = List.of("invoicenumber", "amount", "reference");
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final RevenueRollupService revenueRollupService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final OptimisticRetry optimisticRetry;
+    private final int chunkSize;
+    private final int maxLines;
+
+    public PaymentBatchService(InvoiceRepository invoiceRepository,
+            PaymentRepository paymentRepository,
+            OutboxPublisher outboxPublisher,
+            RevenueRollupService revenueRollupService,
+            DashboardSnapshotCache dashboardSnapshotCache,
+            OptimisticRetry optimisticRetry,
+            @Value("${payments.batch.chunk-size:1000}") int chunkSize,
+            @Value("${payments.batch.max-lines:100000}") int maxLines) {
+        this.invoiceRepository = invoiceRepository;
+        this.paymentRepository = paymentRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.revenueRollupService = revenueRollupService;
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+        this.optimisticRetry = optimisticRetry;
+        this.chunkSize = chunkSize;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Applies a CSV body with {@code invoice_number}, {@code amount} and
+     * {@code reference} columns.
+     */
+    public PaymentBatchResultDTO applyCsv(InputStream in) {
+        List<Entry> entries = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new BadRequestException("CSV input is empty");
+            }
+            int[] columns = columnIndexes(header);
+            long line = 0;
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                line++;
+                checkSize(line);
+                String amount = field(fields, columns[1]);
+                entries.add(new Entry(line, field(fields, columns[0]), parseAmount(amount), field(fields, columns[2]),
+                        amount));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return applyEntries(entries);
+    }
+
+    public PaymentBatchResultDTO apply(List<PaymentLineDTO> lines) {
+        checkSize(lines.size());
+        List<Entry> entries = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            PaymentLineDTO dto = lines.get(i);
+            entries.add(new Entry(i + 1, trim(dto.getInvoiceNumber()), dto.getAmount(), trim(dto.getReference()),
+                    dto.getAmount() != null ? dto.getAmount().toPlainString() : null));
+        }
+        return applyEntries(entries);
+    }
+
+    private PaymentBatchResultDTO applyEntries(List<Entry> entries) {
+        long startedAt = System.nanoTime();
+        LineResult[] results = new LineResult[entries.size()];
+        Map<String, Long> firstLineByReference = new HashMap<>();
+        List<Entry> pending = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            String problem = validate(entry);
+            if (problem != null) {
+                results[i] = result(entry, Outcome.REJECTED, problem, null);
+                continue;
+            }
+            Long firstLine = firstLineByReference.putIfAbsent(entry.reference(), entry.line());
+            if (firstLine != null) {
+                results[i] = result(entry, Outcome.DUPLICATE, "Same reference as line " + firstLine, null);
+                continue;
+            }
+            pending.add(entry);
+        }
+
+        try {
+            for (int from = 0; from < pending.size(); from += chunkSize) {
+                List<Entry> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+                for (LineResult result : applyChunk(chunk)) {
+                    results[(int) result.getLine() - 1] = result;
+                }
+            }
+        } finally {
+            dashboardSnapshotCache.invalidate();
+        }
+
+        PaymentBatchResultDTO report = summarize(results);
+        log.info("Payment batch of {} lines: {} applied ({}), {} duplicates, {} rejected in {} ms",
+                report.getLines(), report.getApplied(), report.getAppliedAmount(), report.getDuplicates(),
+                report.getRejected(), (System.nanoTime() - startedAt) / 1_000_000);
+        return report;
+    }
+
+    private List<LineResult> applyChunk(List<Entry> chunk) {
+        try {
+            return optimisticRetry.execute(() -> applyInTransaction(chunk));
+        } catch (DataIntegrityViolationException e) {
+            // Another upload recorded one of the references first; the rerun reports it as a duplicate
+            return optimisticRetry.execute(() -> applyInTransaction(chunk));
+        }
+    }
+
+    private List<LineResult> applyInTransaction(List<Entry> chunk) {
+        Set<String> recorded = new HashSet<>(paymentRepository.findExistingReferences(
+                chunk.stream().map(Entry::reference).toList()));
+        Map<String, Invoice> invoices = invoiceRepository.findByInvoiceNumberIn(
+                        chunk.stream().map(Entry::invoiceNumber).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Invoice::getInvoiceNumber, Function.identity()));
+
+        List<LineResult> results = new ArrayList<>(chunk.size());
+        Map<Invoice, RevenueRollupService.InvoiceSnapshot> before = new LinkedHashMap<>();
+        List<Payment> payments = new ArrayList<>();
+        BigDecimal appliedAmount = BigDecimal.ZERO;
+        for (Entry entry : chunk) {
+            if (recorded.contains(entry.reference())) {
+                results.add(result(entry, Outcome.DUPLICATE, "Payment reference was already recorded", null));
+                continue;
+            }
+            Invoice invoice = invoices.get(entry.invoiceNumber());
+            if (invoice == null) {
+                results.add(result(entry, Outcome.REJECTED, "Unknown invoice", null));
+                continue;
+            }
+            if (invoice.getStatus() == InvoiceStatus.PAID) {
+                results.add(result(entry, Outcome.REJECTED, "Invoice is already paid", invoice));
+                continue;
+            }
+            if (entry.amount().compareTo(invoice.getBalanceDue()) > 0) {
+                results.add(result(entry, Outcome.REJECTED, "Payment amount exceeds balance due", invoice));
+                continue;
+            }
+
+            before.putIfAbsent(invoice, RevenueRollupService.InvoiceSnapshot.of(invoice));
+            invoice.recordPayment(entry.amount());
+            payments.add(Payment.builder()
+                    .invoice(invoice)
+                    .amount(entry.amount())
+                    .reference(entry.reference())
+                    .build());
+            InvoiceEvent event = InvoiceEvent.of(InvoiceEvent.Type.PAYMENT_RECORDED, invoice, entry.amount());
+            event.setPaymentReference(entry.reference());
+            outboxPublisher.publish(event);
+            appliedAmount = appliedAmount.add(entry.amount());
+            results.add(result(entry, Outcome.APPLIED, null, invoice));
+        }
+
+        paymentRepository.saveAll(payments);
+        revenueRollupService.paymentsRecorded(before, appliedAmount, payments.size());
+        return results;
+    }
+
+    private static String validate(Entry entry) {
+        if (entry.invoiceNumber() == null) {
+            return "invoice_number is required";
+        }
+        if (entry.reference() == null) {
+            return "reference is required";
+        }
+        if (entry.reference().length() > Payment.MAX_REFERENCE_LENGTH) {
+            return "reference is longer than " + Payment.MAX_REFERENCE_LENGTH + " characters";
+        }
+        if (entry.amount() == null) {
+            return entry.rawAmount() == null ? "amount is required" : "amount is not a number: " + entry.rawAmount();
+        }
+        if (entry.amount().signum() <= 0) {
+            return "Payment amount must be positive";
+        }
+        if (entry.amount().stripTrailingZeros().scale() > 2) {
+            return "amount has more than 2 decimal places";
+        }
+        return null;
+    }
+
+    private static LineResult result(Entry entry, Outcome outcome, String message, Invoice invoice) {
+        return LineResult.builder()
+                .line(entry.line())
+                .invoiceNumber(entry.invoiceNumber())
+                .reference(entry.reference())
+                .amount(entry.amount())
+                .outcome(outcome)
+                .message(message)
+                .invoiceStatus(invoice != null ? invoice.getStatus() : null)
+                .balanceDue(invoice != null ? invoice.getBalanceDue() : null)
+                .build();
+    }
+
+    private static PaymentBatchResultDTO summarize(LineResult[] results) {
+        int applied = 0;
+        int duplicates = 0;
+        int rejected = 0;
+        BigDecimal appliedAmount = BigDecimal.ZERO;
+        for (LineResult result : results) {
+            switch (result.getOutcome()) {
+                case APPLIED -> {
+                    applied++;
+                    appliedAmount = appliedAmount.add(result.getAmount());
+                }
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> rejected++;
+            }
+        }
+        return PaymentBatchResultDTO.builder()
+                .lines(results.length)
+                .applied(applied)
+                .duplicates(duplicates)
+                .rejected(rejected)
+                .appliedAmount(appliedAmount)
+                .results(List.of(results))
+                .build();
+    }
+
+    private void checkSize(long lines) {
+        if (lines > maxLines) {
+            throw new BadRequestException("A payment batch can have at most " + maxLines + " lines");
+        }
+    }
+
+    private static int[] columnIndexes(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = CSV_COLUMNS.stream().filter(name -> !columns.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return CSV_COLUMNS.stream().mapToInt(columns::get).toArray();
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? trim(fields.get(index)) : null;
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Entry(long line, String invoiceNumber, BigDecimal amount, String reference, String rawAmount) {
+    }
+}
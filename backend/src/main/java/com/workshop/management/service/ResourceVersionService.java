@@ -0,0 +1,105 @@
+package com.workshop.management.service;
+
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.exception.ResourceNotFoundException;
+import com.workshop.management.repository.ResourceVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ETags for conditional GETs. Single resources get strong ETags from their own
+ * and their related rows' modification times; collections get weak ETags from a
+ * table-wide watermark. Work order ETags embed the optimistic lock version so
+ * they can be sent back in {@code If-Match}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    // "7", "wo-12-v7-3fa4c2d19e0b5a68" or either of them quoted
+    private static final Pattern IF_MATCH = Pattern.compile("\"?(?:[a-z]+-\\d+-v)?(\\d{1,18})(?:-\\p{XDigit}+)?\"?");
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    /**
+     * Answers a conditional GET. The ETag and, unless the client's copy is current,
+     * the body are read in one read-only transaction, so both come from the same
+     * database even with read replicas, and the ETag is never newer than the body.
+     */
+    @Transactional(readOnly = true)
+    public <T> ResponseEntity<T> conditionalGet(WebRequest request, Supplier<String> etag, Supplier<T> body) {
+        String value = etag.get();
+        if (request.checkNotModified(value)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(value).cacheControl(CacheControl.noCache()).body(body.get());
+    }
+
+    public String workOrderETag(Long id) {
+        return resourceVersionRepository.workOrder(id)
+                .map(fingerprint -> strong("wo-" + id + "-v" + fingerprint.version(), fingerprint.value()))
+                .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", id));
+    }
+
+    public String customerETag(Long id) {
+        return resourceVersionRepository.customer(id)
+                .map(fingerprint -> strong("customer-" + id, fingerprint))
+                .orElseThrow(() -> new ResourceNotFoundException("Customer", id));
+    }
+
+    public String workOrdersETag() {
+        return weak("workorders", resourceVersionRepository.workOrdersWatermark());
+    }
+
+    public String customersETag() {
+        return weak("customers", resourceVersionRepository.customersWatermark());
+    }
+
+    /**
+     * Version a client expects from an {@code If-Match} header, or the fallback
+     * when the header is absent. {@code *} matches any version.
+     */
+    public static Long expectedVersion(String ifMatch, Long fallback) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return fallback;
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        Matcher matcher = IF_MATCH.matcher(value);
+        if (!matcher.matches()) {
+            throw new BadRequestException("If-Match must be a single strong ETag or version number");
+        }
+        return Long.valueOf(matcher.group(1));
+    }
+
+    private static String strong(String prefix, String fingerprint) {
+        return "\"" + prefix + "-" + hash(fingerprint) + "\"";
+    }
+
+    private static String weak(String prefix, String fingerprint) {
+        return "W/" + strong(prefix, fingerprint);
+    }
+
+    private static String hash(String fingerprint) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.workshop.management.service;
+
+import com.workshop.management.dto.RevenueReportDTO;
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.InvoiceStatus;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.repository.RevenueRollupRepository;
+import com.workshop.management.repository.RevenueRollupRepository.StatusDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the daily revenue rollups in step with invoice changes. The update
+ * methods must run in the transaction that changes the invoice.
+ * <p>
+ * An invoice counts as billed on its issue date once it has been sent; drafts
+ * only appear in the status totals. Paid revenue is booked on the day the
+ * invoice is paid in full.
+ * <p>
+ * Each update method writes its status total changes last, in one statement that
+ * locks the rows in a fixed order. Those rows are shared by all invoices and stay
+ * locked until the invoice transaction commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupService {
+
+    public static final int MAX_REPORT_DAYS = 3_660;
+
+    private final RevenueRollupRepository rollupRepository;
+
+    /**
+     * Invoice state before a change, used to move it between status totals.
+     */
+    public record InvoiceSnapshot(InvoiceStatus status, BigDecimal totalAmount, BigDecimal paidAmount) {
+
+        public static InvoiceSnapshot of(Invoice invoice) {
+            return new InvoiceSnapshot(invoice.getStatus(), invoice.getTotalAmount(), invoice.getPaidAmount());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoiceCreated(Invoice invoice) {
+        rollupRepository.adjustStatuses(Map.of(invoice.getStatus(), counted(InvoiceSnapshot.of(invoice))));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoiceSent(InvoiceSnapshot before, Invoice invoice) {
+        LocalDate day = invoice.getIssueDate();
+        rollupRepository.addDaily(day, invoice.getTotalAmount(), 1, BigDecimal.ZERO, 0, BigDecimal.ZERO, 0);
+        rollupRepository.addCategoriesForWorkOrder(day, invoice.getWorkOrder().getId());
+        Long mechanicId = mechanicId(invoice);
+        if (mechanicId != null) {
+            rollupRepository.addMechanic(day, mechanicId, invoice.getTotalAmount(), BigDecimal.ZERO);
+        }
+        invoiceChanged(before, invoice);
+    }
+
+    /**
+     * Moves the invoice between status totals and, for an invoice that was
+     * already billed, books any change of its total on the issue date.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invoiceChanged(InvoiceSnapshot before, Invoice invoice) {
+        BigDecimal totalDelta = invoice.getTotalAmount().subtract(before.totalAmount());
+        if (before.status() != InvoiceStatus.DRAFT && totalDelta.signum() != 0) {
+            rollupRepository.addDaily(invoice.getIssueDate(), totalDelta, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, 0);
+            Long mechanicId = mechanicId(invoice);
+            if (mechanicId != null) {
+                rollupRepository.addMechanic(invoice.getIssueDate(), mechanicId, totalDelta, BigDecimal.ZERO);
+            }
+        }
+        if (before.status() == invoice.getStatus()
+                && before.totalAmount().compareTo(invoice.getTotalAmount()) == 0
+                && before.paidAmount().compareTo(invoice.getPaidAmount()) == 0) {
+            return;
+        }
+        Map<InvoiceStatus, StatusDelta> statusDeltas = new EnumMap<>(InvoiceStatus.class);
+        move(statusDeltas, before, InvoiceSnapshot.of(invoice));
+        rollupRepository.adjustStatuses(statusDeltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentRecorded(InvoiceSnapshot before, Invoice invoice, BigDecimal amount) {
+        boolean nowPaid = before.status() != InvoiceStatus.PAID && invoice.getStatus() == InvoiceStatus.PAID;
+        BigDecimal paidRevenue = nowPaid ? invoice.getTotalAmount() : BigDecimal.ZERO;
+        LocalDate today = LocalDate.now();
+        rollupRepository.addDaily(today, BigDecimal.ZERO, 0, amount, 1, paidRevenue, nowPaid ? 1 : 0);
+        Long mechanicId = mechanicId(invoice);
+        if (nowPaid && mechanicId != null) {
+            rollupRepository.addMechanic(invoice.getPaidDate(), mechanicId, BigDecimal.ZERO, paidRevenue);
+        }
+        invoiceChanged(before, invoice);
+    }
+
+    /**
+     * Books a batch of payments with one daily update and one update per status and
+     * mechanic, instead of several per payment. {@code before} maps every invoice
+     * that was paid to its state before the first of its payments.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentsRecorded(Map<Invoice, InvoiceSnapshot> before, BigDecimal amount, long count) {
+        if (count == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        BigDecimal paidRevenue = BigDecimal.ZERO;
+        int invoicesPaid = 0;
+        Map<Long, BigDecimal> paidByMechanic = new HashMap<>();
+        Map<InvoiceStatus, StatusDelta> statusDeltas = new EnumMap<>(InvoiceStatus.class);
+        for (Map.Entry<Invoice, InvoiceSnapshot> entry : before.entrySet()) {
+            Invoice invoice = entry.getKey();
+            InvoiceSnapshot was = entry.getValue();
+            if (was.status() != InvoiceStatus.PAID && invoice.getStatus() == InvoiceStatus.PAID) {
+                paidRevenue = paidRevenue.add(invoice.getTotalAmount());
+                invoicesPaid++;
+                Long mechanicId = mechanicId(invoice);
+                if (mechanicId != null) {
+                    paidByMechanic.merge(mechanicId, invoice.getTotalAmount(), BigDecimal::add);
+                }
+            }
+            move(statusDeltas, was, InvoiceSnapshot.of(invoice));
+        }
+        rollupRepository.addDaily(today, BigDecimal.ZERO, 0, amount, count, paidRevenue, invoicesPaid);
+        paidByMechanic.forEach((mechanicId, revenue) ->
+                rollupRepository.addMechanic(today, mechanicId, BigDecimal.ZERO, revenue));
+        rollupRepository.adjustStatuses(statusDeltas);
+    }
+
+    /**
+     * Moves sets of invoices to one status, for bulk updates that bypass the
+     * entities. {@code moved} holds the count and amounts of the invoices taken
+     * from each previous status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusMoved(Map<InvoiceStatus, StatusDelta> moved, InvoiceStatus to) {
+        Map<InvoiceStatus, StatusDelta> statusDeltas = new EnumMap<>(InvoiceStatus.class);
+        moved.forEach((from, delta) -> {
+            statusDeltas.merge(from, delta.negate(), StatusDelta::plus);
+            statusDeltas.merge(to, delta, StatusDelta::plus);
+        });
+        rollupRepository.adjustStatuses(statusDeltas);
+    }
+
+    @Transactional
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        rollupRepository.rebuild();
+        log.info("Rebuilt revenue rollups in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Populates the rollups on first start after they were introduced.
+     */
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rollupRepository.isEmpty()) {
+            rebuild();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RevenueReportDTO getRevenueReport(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new BadRequestException("Report range must not exceed " + MAX_REPORT_DAYS + " days");
+        }
+
+        RevenueReportDTO report = RevenueReportDTO.builder()
+                .from(from)
+                .to(to)
+                .billedAmount(BigDecimal.ZERO)
+                .paymentsAmount(BigDecimal.ZERO)
+                .paidRevenue(BigDecimal.ZERO)
+                .daily(rollupRepository.findDaily(from, to))
+                .billedByCategory(rollupRepository.sumBilledByCategory(from, to))
+                .byMechanic(rollupRepository.sumByMechanic(from, to))
+                .invoicesByStatus(rollupRepository.countByStatus())
+                .outstandingBalance(rollupRepository.sumOutstanding())
+                .build();
+        for (RevenueReportDTO.DailyRevenue day : report.getDaily()) {
+            report.setBilledAmount(report.getBilledAmount().add(day.getBilledAmount()));
+            report.setInvoicesIssued(report.getInvoicesIssued() + day.getInvoicesIssued());
+            report.setPaymentsAmount(report.getPaymentsAmount().add(day.getPaymentsAmount()));
+            report.setPaymentsCount(report.getPaymentsCount() + day.getPaymentsCount());
+            report.setPaidRevenue(report.getPaidRevenue().add(day.getPaidRevenue()));
+            report.setInvoicesPaid(report.getInvoicesPaid() + day.getInvoicesPaid());
+        }
+        return report;
+    }
+
+    private static void move(Map<InvoiceStatus, StatusDelta> statusDeltas, InvoiceSnapshot from, InvoiceSnapshot to) {
+        statusDeltas.merge(from.status(), counted(from).negate(), StatusDelta::plus);
+        statusDeltas.merge(to.status(), counted(to), StatusDelta::plus);
+    }
+
+    private static StatusDelta counted(InvoiceSnapshot invoice) {
+        return new StatusDelta(1, invoice.totalAmount(), invoice.paidAmount());
+    }
+
+    private static Long mechanicId(Invoice invoice) {
+        return invoice.getWorkOrder().getAssignedMechanic() != null
+                ? invoice.getWorkOrder().getAssignedMechanic().getId()
+                : null;
+    }
+}
@@ -0,0 +1,341 @@
+package com.workshop.management.service;
+
+import com.workshop.management.config.ReadRouting;
+import com.workshop.management.dto.ScheduleSlotDTO;
+import com.workshop.management.dto.WorkOrderEvent;
+import com.workshop.management.entity.Role;
+import com.workshop.management.entity.User;
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.entity.WorkOrderStatus;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.exception.ResourceNotFoundException;
+import com.workshop.management.repository.MechanicBooking;
+import com.workshop.management.repository.UserRepository;
+import com.workshop.management.repository.WorkOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Finds free mechanic time and prevents double-booking. Bookings are kept in a
+ * {@link MechanicScheduleIndex} that is loaded from the database at startup,
+ * updated from committed work order events and periodically rebuilt to pick up
+ * changes made by other instances.
+ */
+@Slf4j
+@Service
+public class SchedulingService {
+
+    public static final int DEFAULT_JOB_MINUTES = 60;
+    public static final int MAX_SLOTS = 50;
+
+    private static final Set<WorkOrderStatus> CLOSED = EnumSet.of(WorkOrderStatus.COMPLETED, WorkOrderStatus.CANCELLED);
+    private static final int RESERVE_ATTEMPTS = 3;
+
+    private final WorkOrderRepository workOrderRepository;
+    private final UserRepository userRepository;
+    private final LocalTime dayStart;
+    private final LocalTime dayEnd;
+    private final Set<DayOfWeek> workingDays;
+    private final long stepMinutes;
+    private final Duration horizon;
+    private final MechanicScheduleIndex index = new MechanicScheduleIndex();
+    private volatile Map<Long, String> mechanics = Map.of();
+    // Negative, so placeholder bookings never clash with work order ids
+    private final AtomicLong placeholderIds = new AtomicLong();
+
+    public SchedulingService(WorkOrderRepository workOrderRepository,
+            UserRepository userRepository,
+            @Value("${scheduling.day-start:08:00}") String dayStart,
+            @Value("${scheduling.day-end:17:00}") String dayEnd,
+            @Value("${scheduling.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") Set<DayOfWeek> workingDays,
+            @Value("${scheduling.slot-step:15m}") Duration slotStep,
+            @Value("${scheduling.horizon:90d}") Duration horizon) {
+        this.workOrderRepository = workOrderRepository;
+        this.userRepository = userRepository;
+        this.dayStart = LocalTime.parse(dayStart);
+        this.dayEnd = LocalTime.parse(dayEnd);
+        this.workingDays = workingDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(workingDays);
+        this.stepMinutes = Math.max(1, slotStep.toMinutes());
+        this.horizon = horizon;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${scheduling.index-refresh:PT10M}",
+            fixedDelayString = "${scheduling.index-refresh:PT10M}")
+    public void rebuildIndex() {
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        // The index is patched from committed events, so it must not be rebuilt from a lagging replica
+        List<MechanicScheduleIndex.Booking> bookings = ReadRouting.onPrimary(
+                        () -> workOrderRepository.findOpenBookingsFrom(from, CLOSED))
+                .stream()
+                .map(SchedulingService::toBooking)
+                .collect(Collectors.toList());
+        mechanics = ReadRouting.onPrimary(() -> userRepository.findByRoleAndEnabledTrueOrderById(Role.MECHANIC))
+                .stream()
+                .collect(Collectors.toMap(User::getId, User::getFullName, (a, b) -> a, LinkedHashMap::new));
+        index.replaceAll(bookings);
+        log.debug("Loaded {} bookings for {} mechanics into the schedule index", bookings.size(), mechanics.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkOrderEvent(WorkOrderEvent event) {
+        if (event.getAssignedMechanicId() == null || event.getScheduledDate() == null
+                || CLOSED.contains(event.getStatus())) {
+            index.remove(event.getWorkOrderId());
+        } else {
+            index.put(booking(event.getWorkOrderId(), event.getAssignedMechanicId(),
+                    event.getScheduledDate(), event.getEstimatedMinutes()));
+        }
+    }
+
+    /**
+     * Returns the earliest free slots of the given length, at most one per gap in
+     * each mechanic's day, ordered by start time.
+     */
+    public List<ScheduleSlotDTO> findFreeSlots(int durationMinutes, int count, LocalDateTime from, Long mechanicId) {
+        Duration duration = validateDuration(durationMinutes);
+        if (count < 1 || count > MAX_SLOTS) {
+            throw new BadRequestException("Slot count must be between 1 and " + MAX_SLOTS);
+        }
+        LocalDateTime start = from != null && from.isAfter(LocalDateTime.now()) ? from : LocalDateTime.now();
+
+        Map<Long, String> candidates = mechanics;
+        if (mechanicId != null) {
+            if (!candidates.containsKey(mechanicId)) {
+                throw new ResourceNotFoundException("Mechanic", mechanicId);
+            }
+            candidates = Map.of(mechanicId, candidates.get(mechanicId));
+        }
+
+        List<ScheduleSlotDTO> slots = new ArrayList<>();
+        for (Map.Entry<Long, String> mechanic : candidates.entrySet()) {
+            collectSlots(mechanic.getKey(), mechanic.getValue(), start, duration, count, slots);
+        }
+        return slots.stream()
+                .sorted(Comparator.comparing(ScheduleSlotDTO::getStart).thenComparing(ScheduleSlotDTO::getMechanicId))
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Books the work order's mechanic and time, failing if it overlaps another
+     * booking. The reservation is released again if the transaction rolls back.
+     */
+    public void reserve(WorkOrder workOrder) {
+        if (!tryReserve(workOrder)) {
+            throw new BadRequestException("Mechanic is already booked between " + workOrder.getScheduledDate()
+                    + " and " + workOrder.getScheduledDate().plusMinutes(minutesOf(workOrder.getEstimatedMinutes())));
+        }
+    }
+
+    /**
+     * Same as {@link #reserve} but reports a conflict instead of throwing. Work
+     * orders without a mechanic or date, and closed ones, always succeed.
+     */
+    private boolean tryReserve(WorkOrder workOrder) {
+        if (workOrder.getAssignedMechanic() == null || workOrder.getScheduledDate() == null
+                || CLOSED.contains(workOrder.getStatus())) {
+            return true;
+        }
+        return tryReserve(booking(workOrder.getId(), workOrder.getAssignedMechanic().getId(),
+                workOrder.getScheduledDate(), workOrder.getEstimatedMinutes()));
+    }
+
+    /**
+     * Books the mechanic's time for a work order that has no id yet, so that an
+     * order that would double-book is never persisted. Returns {@code null} on a
+     * conflict. Pass the hold to {@link #assign} once the work order is persisted;
+     * the booking is released if the transaction rolls back.
+     */
+    public Hold hold(WorkOrder workOrder) {
+        if (workOrder.getAssignedMechanic() == null || workOrder.getScheduledDate() == null
+                || CLOSED.contains(workOrder.getStatus())) {
+            return Hold.NONE;
+        }
+        MechanicScheduleIndex.Booking placeholder = booking(placeholderIds.decrementAndGet(),
+                workOrder.getAssignedMechanic().getId(), workOrder.getScheduledDate(), workOrder.getEstimatedMinutes());
+        if (!index.tryReserve(placeholder).accepted()) {
+            return null;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // No-op once assigned; otherwise the placeholder must not outlive the transaction
+                    index.undo(placeholder, null);
+                }
+            });
+        }
+        return new Hold(placeholder);
+    }
+
+    /**
+     * Moves a hold onto the persisted work order's id.
+     */
+    public void assign(Hold hold, WorkOrder workOrder) {
+        if (hold.placeholder == null) {
+            return;
+        }
+        MechanicScheduleIndex.Booking booking = index.rekey(hold.placeholder, workOrder.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        index.undo(booking, null);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Reserves the earliest free slot across all mechanics for the work order.
+     */
+    public ScheduleSlotDTO reserveEarliestSlot(Long workOrderId, Integer estimatedMinutes, LocalDateTime from) {
+        int minutes = minutesOf(estimatedMinutes);
+        for (int attempt = 0; attempt < RESERVE_ATTEMPTS; attempt++) {
+            List<ScheduleSlotDTO> slots = findFreeSlots(minutes, 1, from, null);
+            if (slots.isEmpty()) {
+                throw new BadRequestException("No mechanic has " + minutes + " free minutes within the next "
+                        + horizon.toDays() + " days");
+            }
+            ScheduleSlotDTO slot = slots.get(0);
+            if (tryReserve(new MechanicScheduleIndex.Booking(workOrderId, slot.getMechanicId(),
+                    slot.getStart(), slot.getEnd()))) {
+                return slot;
+            }
+        }
+        throw new BadRequestException("Could not reserve a slot, please try again");
+    }
+
+    private boolean tryReserve(MechanicScheduleIndex.Booking booking) {
+        MechanicScheduleIndex.Reservation reservation = index.tryReserve(booking);
+        if (!reservation.accepted()) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        index.undo(booking, reservation.previous());
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private void collectSlots(long mechanicId, String mechanicName, LocalDateTime from, Duration duration,
+            int count, List<ScheduleSlotDTO> slots) {
+        LocalDateTime limit = from.plus(horizon);
+        int found = 0;
+        for (LocalDate day = from.toLocalDate(); !day.atTime(dayStart).isAfter(limit) && found < count;
+                day = day.plusDays(1)) {
+            if (!workingDays.contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime open = day.atTime(dayStart);
+            LocalDateTime close = day.atTime(dayEnd);
+            LocalDateTime cursor = alignUp(open.isAfter(from) ? open : from);
+            if (!cursor.isBefore(close)) {
+                continue;
+            }
+            for (MechanicScheduleIndex.Booking booking : index.overlapping(mechanicId, cursor, close)) {
+                if (!cursor.plus(duration).isAfter(booking.start())) {
+                    slots.add(slot(mechanicId, mechanicName, cursor, duration));
+                    if (++found == count) {
+                        return;
+                    }
+                }
+                LocalDateTime next = alignUp(booking.end());
+                if (next.isAfter(cursor)) {
+                    cursor = next;
+                }
+            }
+            if (!cursor.plus(duration).isAfter(close)) {
+                slots.add(slot(mechanicId, mechanicName, cursor, duration));
+                found++;
+            }
+        }
+    }
+
+    private Duration validateDuration(int minutes) {
+        long dayMinutes = Duration.between(dayStart, dayEnd).toMinutes();
+        if (minutes < 1 || minutes > dayMinutes) {
+            throw new BadRequestException("Job length must be between 1 and " + dayMinutes + " minutes");
+        }
+        return Duration.ofMinutes(minutes);
+    }
+
+    private LocalDateTime alignUp(LocalDateTime time) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        if (minute.isBefore(time)) {
+            minute = minute.plusMinutes(1);
+        }
+        long remainder = (minute.getHour() * 60L + minute.getMinute()) % stepMinutes;
+        return remainder == 0 ? minute : minute.plusMinutes(stepMinutes - remainder);
+    }
+
+    private static ScheduleSlotDTO slot(long mechanicId, String mechanicName, LocalDateTime start,
+            Duration duration) {
+        return ScheduleSlotDTO.builder()
+                .mechanicId(mechanicId)
+                .mechanicName(mechanicName)
+                .start(start)
+                .end(start.plus(duration))
+                .build();
+    }
+
+    private static MechanicScheduleIndex.Booking toBooking(MechanicBooking row) {
+        return booking(row.getWorkOrderId(), row.getMechanicId(), row.getScheduledDate(), row.getEstimatedMinutes());
+    }
+
+    private static MechanicScheduleIndex.Booking booking(long workOrderId, long mechanicId, LocalDateTime start,
+            Integer estimatedMinutes) {
+        return new MechanicScheduleIndex.Booking(workOrderId, mechanicId, start,
+                start.plusMinutes(minutesOf(estimatedMinutes)));
+    }
+
+    private static int minutesOf(Integer estimatedMinutes) {
+        return estimatedMinutes != null && estimatedMinutes > 0 ? estimatedMinutes : DEFAULT_JOB_MINUTES;
+    }
+
+    /**
+     * Slot booked by {@link #hold} for a work order that is not persisted yet.
+     */
+    public static final class Hold {
+
+        private static final Hold NONE = new Hold(null);
+
+        private final MechanicScheduleIndex.Booking placeholder;
+
+        private Hold(MechanicScheduleIndex.Booking placeholder) {
+            this.placeholder = placeholder;
+        }
+    }
+}
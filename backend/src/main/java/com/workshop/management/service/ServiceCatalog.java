@@ -0,0 +1,201 @@
+package com.workshop.management.service;
+
+import com.workshop.management.config.ReadRouting;
+import com.workshop.management.dto.ServiceItemDTO;
+import com.workshop.management.entity.ServiceCategory;
+import com.workshop.management.entity.ServiceItem;
+import com.workshop.management.repository.ServiceItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable in-memory copy of the service catalog. Reads never touch the
+ * database; writes build a new snapshot and swap it in once their transaction
+ * commits. A periodic reload picks up changes made by other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ServiceCatalog {
+
+    private final ServiceItemRepository serviceItemRepository;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot current;
+    private long modifications;
+
+    /**
+     * One version of the catalog. The ETag is derived from the content, so it is
+     * the same on every instance and across restarts.
+     */
+    public record Snapshot(long version, String etag, Map<Long, ServiceItemDTO> byId, List<ServiceItemDTO> all,
+            List<ServiceItemDTO> active, Map<ServiceCategory, List<ServiceItemDTO>> activeByCategory) {
+
+        public Optional<ServiceItemDTO> find(Long id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        public List<ServiceItemDTO> active(ServiceCategory category) {
+            return activeByCategory.getOrDefault(category, List.of());
+        }
+    }
+
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : load();
+    }
+
+    /**
+     * Detached copy of a catalog item, usable as the target of a line item's
+     * association without loading the row.
+     */
+    public Optional<ServiceItem> findReference(Long id) {
+        return current().find(id).map(ServiceCatalog::toReference);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.refresh-interval:PT5M}",
+            fixedDelayString = "${catalog.refresh-interval:PT5M}")
+    public void reload() {
+        load();
+    }
+
+    private Snapshot load() {
+        long seen;
+        writeLock.lock();
+        try {
+            seen = modifications;
+        } finally {
+            writeLock.unlock();
+        }
+
+        // Reloads follow local writes, which a replica may not have replayed yet
+        List<ServiceItemDTO> items = ReadRouting.onPrimary(() -> serviceItemRepository.findAll(Sort.by("id")))
+                .stream()
+                .map(ServiceItemService::toDTO)
+                .toList();
+
+        writeLock.lock();
+        try {
+            // A local write landed while loading; keep it and let the next reload catch up
+            if (seen != modifications && current != null) {
+                return current;
+            }
+            return swap(items);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces one item once the current transaction commits, or immediately when
+     * called outside a transaction.
+     */
+    public void put(ServiceItemDTO item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(item);
+                }
+            });
+        } else {
+            apply(item);
+        }
+    }
+
+    private void apply(ServiceItemDTO item) {
+        writeLock.lock();
+        try {
+            modifications++;
+            if (current == null) {
+                return;
+            }
+            Map<Long, ServiceItemDTO> items = new LinkedHashMap<>(current.byId());
+            items.put(item.getId(), item);
+            List<ServiceItemDTO> sorted = new ArrayList<>(items.values());
+            sorted.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+            swap(sorted);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Snapshot swap(List<ServiceItemDTO> items) {
+        Snapshot previous = current;
+        String etag = etag(items);
+        if (previous != null && previous.etag().equals(etag)) {
+            return previous;
+        }
+
+        Map<Long, ServiceItemDTO> byId = new LinkedHashMap<>();
+        List<ServiceItemDTO> active = new ArrayList<>();
+        Map<ServiceCategory, List<ServiceItemDTO>> byCategory = new EnumMap<>(ServiceCategory.class);
+        for (ServiceItemDTO item : items) {
+            byId.put(item.getId(), item);
+            if (item.isActive()) {
+                active.add(item);
+                byCategory.computeIfAbsent(item.getCategory(), category -> new ArrayList<>()).add(item);
+            }
+        }
+        byCategory.replaceAll((category, list) -> List.copyOf(list));
+
+        Snapshot next = new Snapshot(previous != null ? previous.version() + 1 : 1, etag,
+                Collections.unmodifiableMap(byId), List.copyOf(items), List.copyOf(active),
+                Collections.unmodifiableMap(byCategory));
+        current = next;
+        log.debug("Service catalog version {} with {} items", next.version(), items.size());
+        return next;
+    }
+
+    private static String etag(List<ServiceItemDTO> items) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (ServiceItemDTO item : items) {
+            String line = String.join("|", String.valueOf(item.getId()), item.getName(),
+                    String.valueOf(item.getDescription()),
+                    item.getBasePrice() != null ? item.getBasePrice().toPlainString() : "",
+                    String.valueOf(item.getEstimatedMinutes()), String.valueOf(item.getCategory()),
+                    String.valueOf(item.isActive()));
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return "\"catalog-" + HexFormat.of().formatHex(digest.digest(), 0, 8) + "\"";
+    }
+
+    private static ServiceItem toReference(ServiceItemDTO dto) {
+        ServiceItem item = ServiceItem.builder()
+                .name(dto.getName())
+                .description(dto.getDescription())
+                .basePrice(dto.getBasePrice())
+                .estimatedMinutes(dto.getEstimatedMinutes())
+                .category(dto.getCategory())
+                .active(dto.isActive())
+                .build();
+        item.setId(dto.getId());
+        return item;
+    }
+}
@@ -10,43 +10,42 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ServiceItemService {
 
     private final ServiceItemRepository serviceItemRepository;
+    private final ServiceCatalog serviceCatalog;
+
+    public ServiceCatalog.Snapshot getCatalog() {
+        return serviceCatalog.current();
+    }
 
     public List<ServiceItemDTO> getAllActiveServices() {
-        return serviceItemRepository.findByActiveTrue().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return serviceCatalog.current().active();
     }
 
     public List<ServiceItemDTO> getAllServices() {
-        return serviceItemRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return serviceCatalog.current().all();
     }
 
     public List<ServiceItemDTO> getServicesByCategory(ServiceCategory category) {
-        return serviceItemRepository.findByCategoryAndActiveTrue(category).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return serviceCatalog.current().active(category);
     }
 
     public ServiceItemDTO getServiceById(Long id) {
-        ServiceItem service = serviceItemRepository.findById(id)
+        return serviceCatalog.current().find(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service", id));
-        return toDTO(service);
     }
 
     @Transactional
     public ServiceItemDTO createService(ServiceItemDTO dto) {
         ServiceItem service = toEntity(dto);
         service = serviceItemRepository.save(service);
-        return toDTO(service);
+        ServiceItemDTO saved = toDTO(service);
+        serviceCatalog.put(saved);
+        return saved;
     }
 
     @Transactional
@@ -62,7 +61,9 @@ public class ServiceItemService {
         service.setActive(dto.isActive());
 
         service = serviceItemRepository.save(service);
-        return toDTO(service);
+        ServiceItemDTO saved = toDTO(service);
+        serviceCatalog.put(saved);
+        return saved;
     }
 
     @Transactional
@@ -70,10 +71,11 @@ public class ServiceItemService {
         ServiceItem service = serviceItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service", id));
         service.setActive(false);
-        serviceItemRepository.save(service);
+        service = serviceItemRepository.save(service);
+        serviceCatalog.put(toDTO(service));
     }
 
-    private ServiceItemDTO toDTO(ServiceItem service) {
+    static ServiceItemDTO toDTO(ServiceItem service) {
         return ServiceItemDTO.builder()
                 .id(service.getId())
                 .name(service.getName())
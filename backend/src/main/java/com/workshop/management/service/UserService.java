@@ -0,0 +1,83 @@
+package com.workshop.management.service;
+
+import com.workshop.management.dto.UserDTO;
+import com.workshop.management.entity.User;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.exception.ResourceNotFoundException;
+import com.workshop.management.repository.UserRepository;
+import com.workshop.management.security.VerifiedTokenCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Staff account administration. Every change evicts the user's cached tokens, so
+ * a disabled account or a new role applies to the user's next request on this
+ * instance. Other instances pick it up once their own caches expire (see
+ * {@link com.workshop.management.config.SecondLevelCacheConfig}).
+ */
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final VerifiedTokenCache tokenCache;
+
+    @Transactional(readOnly = true)
+    public List<UserDTO> getAllUsers() {
+        return userRepository.findAll(Sort.by("id")).stream()
+                .map(UserService::toDTO)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public UserDTO getUserById(Long id) {
+        return toDTO(findUser(id));
+    }
+
+    @Transactional
+    public UserDTO updateUser(Long id, UserDTO dto) {
+        User user = findUser(id);
+        if (!user.getEmail().equalsIgnoreCase(dto.getEmail()) && userRepository.existsByEmail(dto.getEmail())) {
+            throw new BadRequestException("Email is already in use");
+        }
+
+        user.setFullName(dto.getFullName());
+        user.setEmail(dto.getEmail());
+        user.setPhone(dto.getPhone());
+        user.setRole(dto.getRole());
+        user.setEnabled(dto.isEnabled());
+
+        user = userRepository.save(user);
+        tokenCache.evictUser(user.getUsername());
+        return toDTO(user);
+    }
+
+    @Transactional
+    public void disableUser(Long id) {
+        User user = findUser(id);
+        user.setEnabled(false);
+        userRepository.save(user);
+        tokenCache.evictUser(user.getUsername());
+    }
+
+    private User findUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", id));
+    }
+
+    static UserDTO toDTO(User user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .enabled(user.isEnabled())
+                .build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.workshop.management.service;
 
+import com.workshop.management.dto.CursorPage;
+import com.workshop.management.dto.KeysetCursor;
 import com.workshop.management.dto.VehicleDTO;
 import com.workshop.management.entity.Customer;
+import com.workshop.management.entity.SearchNormalization;
 import com.workshop.management.entity.Vehicle;
 import com.workshop.management.exception.BadRequestException;
 import com.workshop.management.exception.ResourceNotFoundException;
@@ -9,6 +12,7 @@ import com.workshop.management.repository.CustomerRepository;
 import com.workshop.management.repository.VehicleRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,20 +27,33 @@ public class VehicleService {
     private final VehicleRepository vehicleRepository;
     private final CustomerRepository customerRepository;
 
+    @Transactional(readOnly = true)
     public Page<VehicleDTO> getAllVehicles(Pageable pageable) {
         return vehicleRepository.findAll(pageable).map(this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public Page<VehicleDTO> searchVehicles(String search, Pageable pageable) {
-        return vehicleRepository.searchVehicles(search, pageable).map(this::toDTO);
+        return vehicleRepository.searchVehicles(
+                SearchNormalization.text(search.trim()), SearchNormalization.code(search), pageable)
+                .map(this::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<VehicleDTO> getVehiclesPage(KeysetCursor cursor, int size) {
+        List<Vehicle> rows = vehicleRepository.findPageBefore(
+                cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size, page -> page.stream().map(this::toDTO).collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
     public VehicleDTO getVehicleById(Long id) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", id));
         return toDTO(vehicle);
     }
 
+    @Transactional(readOnly = true)
     public List<VehicleDTO> getVehiclesByCustomer(Long customerId) {
         return vehicleRepository.findByCustomerId(customerId).stream()
                 .map(this::toDTO)
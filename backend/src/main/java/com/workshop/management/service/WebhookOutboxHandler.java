@@ -0,0 +1,51 @@
+package com.workshop.management.service;
+
+import com.workshop.management.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts every outbox event to the configured webhook URLs. A non-2xx response or
+ * I/O error fails the delivery and leaves the event for the relay to retry.
+ */
+@Component
+public class WebhookOutboxHandler implements OutboxEventHandler {
+
+    private final List<String> urls;
+    private final RestClient restClient;
+
+    public WebhookOutboxHandler(@Value("${outbox.webhooks.urls:}") List<String> urls,
+            @Value("${outbox.webhooks.timeout:5s}") Duration timeout) {
+        this.urls = urls.stream().filter(url -> !url.isBlank()).toList();
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public boolean supports(String eventType) {
+        return !urls.isEmpty();
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        for (String url : urls) {
+            restClient.post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Event-Id", event.getId().toString())
+                    .header("X-Event-Type", event.getEventType())
+                    .body(event.getPayload())
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.workshop.management.service;
+
+import com.workshop.management.dto.WorkOrderEvent;
+import com.workshop.management.entity.WorkOrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed work order changes out to Server-Sent Events subscribers.
+ * <p>
+ * Connections are held by the servlet container's async support, so idle
+ * subscribers do not occupy a thread. Each subscriber has a bounded buffer that is
+ * drained on the shared task executor; when a slow client overflows it, the
+ * buffered deltas are dropped and a {@code resync} event tells the client to
+ * reload the board.
+ */
+@Slf4j
+@Service
+public class WorkOrderBoardBroadcaster {
+
+    private static final long RECONNECT_MILLIS = 5_000;
+
+    private final TaskExecutor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    public WorkOrderBoardBroadcaster(@Qualifier("applicationTaskExecutor") TaskExecutor executor,
+            @Value("${workorders.stream.buffer-size:256}") int bufferSize,
+            @Value("${workorders.stream.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("workorders.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Registers a subscriber. Empty {@code statuses} and a null {@code mechanicId}
+     * mean no filtering on that field.
+     */
+    public SseEmitter subscribe(Collection<WorkOrderStatus> statuses, Long mechanicId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Set<WorkOrderStatus> statusFilter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(WorkOrderStatus.class)
+                : EnumSet.copyOf(statuses);
+        Subscriber subscriber = new Subscriber(emitter, statusFilter, mechanicId);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        subscriber.offer(SseEmitter.event().name("ready").reconnectTime(RECONNECT_MILLIS).data(""));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkOrderEvent(WorkOrderEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String id = Long.toString(eventIds.incrementAndGet());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                subscriber.offer(SseEmitter.event().id(id).name("workorder").data(event));
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went
+     * away without closing the stream.
+     */
+    @Scheduled(fixedRateString = "${workorders.stream.heartbeat:PT25S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isIdle()) {
+                subscriber.offer(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<WorkOrderStatus> statuses;
+        private final Long mechanicId;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resyncNeeded;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<WorkOrderStatus> statuses, Long mechanicId) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+            this.mechanicId = mechanicId;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Status changes also match on the previous status so a filtered board can
+         * drop a card that moved out of its columns.
+         */
+        boolean accepts(WorkOrderEvent event) {
+            if (mechanicId != null && !mechanicId.equals(event.getAssignedMechanicId())) {
+                return false;
+            }
+            return statuses.contains(event.getStatus())
+                    || (event.getPreviousStatus() != null && statuses.contains(event.getPreviousStatus()));
+        }
+
+        boolean isIdle() {
+            return pending.isEmpty() && !draining.get();
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                pending.clear();
+                resyncNeeded = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    log.warn("Could not schedule work order stream delivery", e);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (resyncNeeded) {
+                    resyncNeeded = false;
+                    pending.clear();
+                    emitter.send(SseEmitter.event().name("resync").data(""));
+                }
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && (resyncNeeded || !pending.isEmpty())) {
+                scheduleDrain();
+            }
+        }
+
+        private void close(Exception cause) {
+            closed = true;
+            pending.clear();
+            subscribers.remove(this);
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -1,58 +1,96 @@
 package com.workshop.management.service;
 
+import com.workshop.management.dto.BulkWorkOrderResponse;
+import com.workshop.management.dto.CursorPage;
+import com.workshop.management.dto.KeysetCursor;
+import com.workshop.management.dto.ScheduleSlotDTO;
 import com.workshop.management.dto.WorkOrderDTO;
+import com.workshop.management.dto.WorkOrderEvent;
 import com.workshop.management.dto.WorkOrderServiceDTO;
 import com.workshop.management.entity.*;
 import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.exception.ConflictException;
 import com.workshop.management.exception.ResourceNotFoundException;
 import com.workshop.management.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class WorkOrderService {
 
+    public static final int MAX_BULK_SIZE = 10_000;
+    private static final int BULK_FLUSH_SIZE = 50;
+    private static final int LOOKUP_CHUNK_SIZE = 1_000;
+
     private final WorkOrderRepository workOrderRepository;
     private final VehicleRepository vehicleRepository;
     private final UserRepository userRepository;
-    private final ServiceItemRepository serviceItemRepository;
+    private final ServiceCatalog serviceCatalog;
     private final WorkOrderServiceRepository workOrderServiceRepository;
-
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final EntityManager entityManager;
+    private final DocumentNumberAllocator numberAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxPublisher outboxPublisher;
+    private final SchedulingService schedulingService;
+    private final OptimisticRetry optimisticRetry;
+
+    @Transactional(readOnly = true)
     public Page<WorkOrderDTO> getAllWorkOrders(Pageable pageable) {
-        return workOrderRepository.findAll(pageable).map(this::toDTO);
+        return toDTOPage(workOrderRepository.findAll(pageable));
     }
 
+    @Transactional(readOnly = true)
     public Page<WorkOrderDTO> getWorkOrdersByStatus(WorkOrderStatus status, Pageable pageable) {
-        return workOrderRepository.findByStatus(status, pageable).map(this::toDTO);
+        return toDTOPage(workOrderRepository.findByStatus(status, pageable));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<WorkOrderDTO> getWorkOrdersPage(WorkOrderStatus status, KeysetCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<WorkOrder> rows = status != null
+                ? workOrderRepository.findPageBeforeByStatus(status, cursor.getCreatedAt(), cursor.getId(), limit)
+                : workOrderRepository.findPageBefore(cursor.getCreatedAt(), cursor.getId(), limit);
+        return CursorPage.of(rows, size, this::toDTOs);
+    }
+
+    @Transactional(readOnly = true)
     public WorkOrderDTO getWorkOrderById(Long id) {
-        WorkOrder workOrder = workOrderRepository.findById(id)
+        WorkOrder workOrder = workOrderRepository.findDetailedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", id));
-        return toDTO(workOrder);
+        return toDTO(workOrder, workOrder.getServices());
     }
 
+    @Transactional(readOnly = true)
     public List<WorkOrderDTO> getRecentWorkOrders(int limit) {
-        return workOrderRepository.findRecentWorkOrders(PageRequest.of(0, limit)).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(workOrderRepository.findRecentWorkOrders(PageRequest.of(0, limit)));
     }
 
+    @Transactional(readOnly = true)
     public List<WorkOrderDTO> getUpcomingAppointments(int days) {
         LocalDateTime start = LocalDateTime.now();
         LocalDateTime end = start.plusDays(days);
-        return workOrderRepository.findByScheduledDateBetween(start, end).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(workOrderRepository.findByScheduledDateBetween(start, end));
     }
 
     @Transactional
@@ -61,6 +99,7 @@ public class WorkOrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", dto.getVehicleId()));
 
         WorkOrder workOrder = WorkOrder.builder()
+                .orderNumber(numberAllocator.nextWorkOrderNumber())
                 .vehicle(vehicle)
                 .status(WorkOrderStatus.PENDING)
                 .description(dto.getDescription())
@@ -76,6 +115,7 @@ public class WorkOrderService {
         }
 
         workOrder = workOrderRepository.save(workOrder);
+        schedulingService.reserve(workOrder);
 
         if (dto.getServices() != null && !dto.getServices().isEmpty()) {
             for (WorkOrderServiceDTO serviceDto : dto.getServices()) {
@@ -83,13 +123,137 @@ public class WorkOrderService {
             }
         }
 
-        return toDTO(workOrderRepository.findById(workOrder.getId()).orElse(workOrder));
+        dashboardSnapshotCache.invalidate();
+        eventPublisher.publishEvent(WorkOrderEvent.of(WorkOrderEvent.Type.CREATED, workOrder, null));
+        return toDTO(workOrder);
     }
 
+    /**
+     * Creates many work orders at once. Vehicles, mechanics and service items are
+     * resolved up front with set-based lookups, and inserts are flushed in JDBC
+     * batches. Items that reference unknown records are reported and skipped.
+     */
     @Transactional
-    public WorkOrderDTO updateWorkOrder(Long id, WorkOrderDTO dto) {
+    public BulkWorkOrderResponse createWorkOrders(List<WorkOrderDTO> dtos) {
+        if (dtos.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " work orders can be created per request");
+        }
+
+        Map<Long, Vehicle> vehicles = findAllInChunks(
+                collectIds(dtos.stream().map(WorkOrderDTO::getVehicleId)),
+                vehicleRepository::findAllById, Vehicle::getId);
+        Map<Long, User> mechanics = findAllInChunks(
+                collectIds(dtos.stream().map(WorkOrderDTO::getAssignedMechanicId)),
+                userRepository::findAllById, User::getId);
+        Map<Long, ServiceItem> serviceItems = new HashMap<>();
+        for (Long serviceItemId : collectIds(dtos.stream()
+                .filter(dto -> dto.getServices() != null)
+                .flatMap(dto -> dto.getServices().stream())
+                .map(WorkOrderServiceDTO::getServiceItemId))) {
+            serviceCatalog.findReference(serviceItemId).ifPresent(item -> serviceItems.put(serviceItemId, item));
+        }
+
+        List<BulkWorkOrderResponse.ItemResult> results = new ArrayList<>(dtos.size());
+        int created = 0;
+        for (int i = 0; i < dtos.size(); i++) {
+            WorkOrderDTO dto = dtos.get(i);
+            String error = validateBulkItem(dto, vehicles, mechanics, serviceItems);
+            if (error != null) {
+                results.add(BulkWorkOrderResponse.ItemResult.builder().index(i).success(false).error(error).build());
+                continue;
+            }
+
+            WorkOrder workOrder = WorkOrder.builder()
+                    .vehicle(vehicles.get(dto.getVehicleId()))
+                    .assignedMechanic(dto.getAssignedMechanicId() != null
+                            ? mechanics.get(dto.getAssignedMechanicId()) : null)
+                    .status(WorkOrderStatus.PENDING)
+                    .description(dto.getDescription())
+                    .customerConcerns(dto.getCustomerConcerns())
+                    .scheduledDate(dto.getScheduledDate())
+                    .estimatedMinutes(dto.getEstimatedMinutes())
+                    .build();
+            if (dto.getServices() != null) {
+                for (WorkOrderServiceDTO serviceDto : dto.getServices()) {
+                    workOrder.addService(buildLineItem(serviceItems.get(serviceDto.getServiceItemId()), serviceDto));
+                }
+            }
+            // Only orders that got their slot are persisted
+            SchedulingService.Hold hold = schedulingService.hold(workOrder);
+            if (hold == null) {
+                results.add(BulkWorkOrderResponse.ItemResult.builder()
+                        .index(i)
+                        .success(false)
+                        .error("Mechanic is already booked at " + dto.getScheduledDate())
+                        .build());
+                continue;
+            }
+            workOrder.setOrderNumber(numberAllocator.nextWorkOrderNumber());
+            entityManager.persist(workOrder);
+            schedulingService.assign(hold, workOrder);
+            eventPublisher.publishEvent(WorkOrderEvent.of(WorkOrderEvent.Type.CREATED, workOrder, null));
+
+            results.add(BulkWorkOrderResponse.ItemResult.builder()
+                    .index(i)
+                    .success(true)
+                    .id(workOrder.getId())
+                    .orderNumber(workOrder.getOrderNumber())
+                    .build());
+            if (++created % BULK_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        dashboardSnapshotCache.invalidate();
+        return BulkWorkOrderResponse.builder()
+                .created(created)
+                .failed(dtos.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private String validateBulkItem(WorkOrderDTO dto, Map<Long, Vehicle> vehicles, Map<Long, User> mechanics,
+            Map<Long, ServiceItem> serviceItems) {
+        if (dto.getVehicleId() == null || !vehicles.containsKey(dto.getVehicleId())) {
+            return "Vehicle not found with id: " + dto.getVehicleId();
+        }
+        if (dto.getAssignedMechanicId() != null && !mechanics.containsKey(dto.getAssignedMechanicId())) {
+            return "Mechanic not found with id: " + dto.getAssignedMechanicId();
+        }
+        if (dto.getServices() != null) {
+            for (WorkOrderServiceDTO serviceDto : dto.getServices()) {
+                if (!serviceItems.containsKey(serviceDto.getServiceItemId())) {
+                    return "Service not found with id: " + serviceDto.getServiceItemId();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Set<Long> collectIds(Stream<Long> ids) {
+        return ids.filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> findAllInChunks(Set<Long> ids, Function<List<Long>, List<T>> finder,
+            Function<T, Long> idGetter) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<T> found = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += LOOKUP_CHUNK_SIZE) {
+            found.addAll(finder.apply(idList.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, idList.size()))));
+        }
+        return found.stream().collect(Collectors.toMap(idGetter, Function.identity()));
+    }
+
+    /**
+     * Replaces the editable fields. When {@code expectedVersion} is given the update
+     * only applies to that version of the work order.
+     */
+    @Transactional
+    public WorkOrderDTO updateWorkOrder(Long id, WorkOrderDTO dto, Long expectedVersion) {
         WorkOrder workOrder = workOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", id));
+        ConflictException.checkVersion("WorkOrder", id, expectedVersion, workOrder.getVersion());
 
         workOrder.setDescription(dto.getDescription());
         workOrder.setCustomerConcerns(dto.getCustomerConcerns());
@@ -105,15 +269,65 @@ public class WorkOrderService {
                     .orElseThrow(() -> new ResourceNotFoundException("Mechanic", dto.getAssignedMechanicId()));
             workOrder.setAssignedMechanic(mechanic);
         }
+        schedulingService.reserve(workOrder);
 
-        workOrder = workOrderRepository.save(workOrder);
+        // Flushed so the returned version is the one just written
+        workOrder = workOrderRepository.saveAndFlush(workOrder);
+        dashboardSnapshotCache.invalidate();
+        eventPublisher.publishEvent(WorkOrderEvent.of(WorkOrderEvent.Type.UPDATED, workOrder, null));
         return toDTO(workOrder);
     }
 
-    @Transactional
-    public WorkOrderDTO updateStatus(Long id, WorkOrderStatus newStatus) {
+    /**
+     * Assigns the mechanic and time of the earliest free slot that fits the work
+     * order's estimated duration. Retried if the work order changes concurrently.
+     */
+    public WorkOrderDTO autoSchedule(Long id, LocalDateTime from) {
+        return optimisticRetry.execute(() -> doAutoSchedule(id, from));
+    }
+
+    private WorkOrderDTO doAutoSchedule(Long id, LocalDateTime from) {
         WorkOrder workOrder = workOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", id));
+        if (workOrder.getStatus() == WorkOrderStatus.COMPLETED || workOrder.getStatus() == WorkOrderStatus.CANCELLED) {
+            throw new BadRequestException("Cannot schedule a " + workOrder.getStatus() + " work order");
+        }
+
+        ScheduleSlotDTO slot = schedulingService.reserveEarliestSlot(id, workOrder.getEstimatedMinutes(), from);
+        workOrder.setAssignedMechanic(userRepository.getReferenceById(slot.getMechanicId()));
+        workOrder.setScheduledDate(slot.getStart());
+
+        WorkOrderStatus previousStatus = workOrder.getStatus();
+        if (previousStatus == WorkOrderStatus.PENDING) {
+            workOrder.setStatus(WorkOrderStatus.SCHEDULED);
+        }
+
+        workOrder = workOrderRepository.saveAndFlush(workOrder);
+        dashboardSnapshotCache.invalidate();
+        if (previousStatus != workOrder.getStatus()) {
+            WorkOrderEvent event = WorkOrderEvent.of(WorkOrderEvent.Type.STATUS_CHANGED, workOrder, previousStatus);
+            outboxPublisher.publish(event);
+            eventPublisher.publishEvent(event);
+        } else {
+            eventPublisher.publishEvent(WorkOrderEvent.of(WorkOrderEvent.Type.UPDATED, workOrder, null));
+        }
+        return toDTO(workOrder);
+    }
+
+    /**
+     * Moves the work order to {@code newStatus}. Without an expected version a
+     * concurrent change is retried against the fresh status, with one it is a conflict.
+     */
+    public WorkOrderDTO updateStatus(Long id, WorkOrderStatus newStatus, Long expectedVersion) {
+        return expectedVersion == null
+                ? optimisticRetry.execute(() -> doUpdateStatus(id, newStatus, null))
+                : optimisticRetry.executeOnce(() -> doUpdateStatus(id, newStatus, expectedVersion));
+    }
+
+    private WorkOrderDTO doUpdateStatus(Long id, WorkOrderStatus newStatus, Long expectedVersion) {
+        WorkOrder workOrder = workOrderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", id));
+        ConflictException.checkVersion("WorkOrder", id, expectedVersion, workOrder.getVersion());
 
         WorkOrderStatus currentStatus = workOrder.getStatus();
         validateStatusTransition(currentStatus, newStatus);
@@ -126,39 +340,54 @@ public class WorkOrderService {
             workOrder.setCompletedAt(LocalDateTime.now());
         }
 
-        workOrder = workOrderRepository.save(workOrder);
+        workOrder = workOrderRepository.saveAndFlush(workOrder);
+        dashboardSnapshotCache.invalidate();
+        WorkOrderEvent event = WorkOrderEvent.of(WorkOrderEvent.Type.STATUS_CHANGED, workOrder, currentStatus);
+        outboxPublisher.publish(event);
+        eventPublisher.publishEvent(event);
         return toDTO(workOrder);
     }
 
-    @Transactional
     public WorkOrderDTO addServiceToWorkOrder(Long workOrderId, WorkOrderServiceDTO serviceDto) {
-        WorkOrder workOrder = workOrderRepository.findById(workOrderId)
-                .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", workOrderId));
-        addServiceToWorkOrder(workOrder, serviceDto);
-        return toDTO(workOrderRepository.findById(workOrderId).orElse(workOrder));
+        return optimisticRetry.execute(() -> {
+            WorkOrder workOrder = workOrderRepository.findById(workOrderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("WorkOrder", workOrderId));
+            addServiceToWorkOrder(workOrder, serviceDto);
+            workOrder = workOrderRepository.saveAndFlush(workOrder);
+            dashboardSnapshotCache.invalidate();
+            eventPublisher.publishEvent(WorkOrderEvent.of(WorkOrderEvent.Type.SERVICE_ADDED, workOrder, null));
+            return toDTO(workOrder);
+        });
     }
 
     private void addServiceToWorkOrder(WorkOrder workOrder, WorkOrderServiceDTO serviceDto) {
-        ServiceItem serviceItem = serviceItemRepository.findById(serviceDto.getServiceItemId())
+        ServiceItem serviceItem = serviceCatalog.findReference(serviceDto.getServiceItemId())
                 .orElseThrow(() -> new ResourceNotFoundException("Service", serviceDto.getServiceItemId()));
 
-        com.workshop.management.entity.WorkOrderService wos = com.workshop.management.entity.WorkOrderService.builder()
-                .workOrder(workOrder)
+        com.workshop.management.entity.WorkOrderService wos = buildLineItem(serviceItem, serviceDto);
+        wos.setWorkOrder(workOrder);
+
+        workOrderServiceRepository.save(wos);
+        workOrder.adjustServicesTotal(wos.getPrice());
+    }
+
+    private com.workshop.management.entity.WorkOrderService buildLineItem(ServiceItem serviceItem,
+            WorkOrderServiceDTO serviceDto) {
+        return com.workshop.management.entity.WorkOrderService.builder()
                 .serviceItem(serviceItem)
                 .price(serviceDto.getPrice() != null ? serviceDto.getPrice() : serviceItem.getBasePrice())
                 .quantity(serviceDto.getQuantity() != null ? serviceDto.getQuantity() : 1)
                 .notes(serviceDto.getNotes())
                 .completed(false)
                 .build();
-
-        workOrderServiceRepository.save(wos);
     }
 
+    @Transactional(readOnly = true)
     public long countByStatus(WorkOrderStatus status) {
         return workOrderRepository.countByStatus(status);
     }
 
-    private void validateStatusTransition(WorkOrderStatus from, WorkOrderStatus to) {
+    static void validateStatusTransition(WorkOrderStatus from, WorkOrderStatus to) {
         // Allow any backward transitions for corrections
         if (to.ordinal() < from.ordinal()) {
             return;
@@ -193,8 +422,33 @@ public class WorkOrderService {
         }
     }
 
+    private Page<WorkOrderDTO> toDTOPage(Page<WorkOrder> page) {
+        return new PageImpl<>(toDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
     private WorkOrderDTO toDTO(WorkOrder workOrder) {
-        List<WorkOrderServiceDTO> serviceDTOs = workOrder.getServices().stream()
+        return toDTOs(List.of(workOrder)).get(0);
+    }
+
+    /**
+     * Maps work orders whose vehicle, customer and mechanic were fetched with the
+     * owning query, loading all of their line items with one additional query.
+     */
+    private List<WorkOrderDTO> toDTOs(List<WorkOrder> workOrders) {
+        if (workOrders.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = workOrders.stream().map(WorkOrder::getId).collect(Collectors.toList());
+        Map<Long, List<com.workshop.management.entity.WorkOrderService>> lines = workOrderServiceRepository
+                .findWithServiceItemByWorkOrderIdIn(ids).stream()
+                .collect(Collectors.groupingBy(s -> s.getWorkOrder().getId()));
+        return workOrders.stream()
+                .map(wo -> toDTO(wo, lines.getOrDefault(wo.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    static WorkOrderDTO toDTO(WorkOrder workOrder, List<com.workshop.management.entity.WorkOrderService> lines) {
+        List<WorkOrderServiceDTO> serviceDTOs = lines.stream()
                 .map(s -> WorkOrderServiceDTO.builder()
                         .id(s.getId())
                         .serviceItemId(s.getServiceItem().getId())
@@ -231,6 +485,7 @@ public class WorkOrderService {
                 .totalCost(workOrder.getTotalCost())
                 .services(serviceDTOs)
                 .createdAt(workOrder.getCreatedAt())
+                .version(workOrder.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,85 @@
+-- Runs after Hibernate has updated the schema (spring.jpa.defer-datasource-initialization).
+-- Every statement must be safe to re-run on each startup.
+
+-- Ids come from one pooled sequence (allocation size 50). Keep it ahead of ids
+-- assigned by the identity columns used before the switch.
+SELECT setval('entity_id_seq', GREATEST(
+        (SELECT last_value FROM entity_id_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM customers),
+        (SELECT COALESCE(MAX(id), 0) FROM vehicles),
+        (SELECT COALESCE(MAX(id), 0) FROM users),
+        (SELECT COALESCE(MAX(id), 0) FROM services),
+        (SELECT COALESCE(MAX(id), 0) FROM work_orders),
+        (SELECT COALESCE(MAX(id), 0) FROM work_order_services),
+        (SELECT COALESCE(MAX(id), 0) FROM invoices)) + 50);
+
+-- Trigram indexes for substring search on customers and vehicles
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Was VARCHAR(400), too short for a long email; Hibernate's update does not widen columns
+ALTER TABLE customers ALTER COLUMN search_text TYPE TEXT;
+
+UPDATE customers
+SET search_text = lower(concat_ws(' ', first_name, last_name, email)),
+    phone_digits = regexp_replace(coalesce(phone, ''), '[^0-9]', '', 'g')
+WHERE search_text IS NULL;
+
+UPDATE vehicles
+SET search_text = lower(concat_ws(' ', make, model)),
+    plate_normalized = upper(regexp_replace(coalesce(license_plate, ''), '[^A-Za-z0-9]', '', 'g')),
+    vin_normalized = upper(regexp_replace(coalesce(vin, ''), '[^A-Za-z0-9]', '', 'g'))
+WHERE search_text IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_customers_search_text_trgm ON customers USING gin (search_text gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_phone_digits_trgm ON customers USING gin (phone_digits gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_search_text_trgm ON vehicles USING gin (search_text gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_plate_normalized_trgm ON vehicles USING gin (plate_normalized gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_vin_normalized_trgm ON vehicles USING gin (vin_normalized gin_trgm_ops);
+
+-- MAX(updated_at) watermarks behind the collection ETags (ResourceVersionRepository)
+CREATE INDEX IF NOT EXISTS idx_customers_updated_at ON customers (updated_at);
+CREATE INDEX IF NOT EXISTS idx_vehicles_updated_at ON vehicles (updated_at);
+CREATE INDEX IF NOT EXISTS idx_work_orders_updated_at ON work_orders (updated_at);
+CREATE INDEX IF NOT EXISTS idx_work_order_services_updated_at ON work_order_services (updated_at);
+
+-- Daily revenue rollups, maintained incrementally by InvoiceService and rebuilt
+-- from invoices by RevenueRollupService.rebuild()
+CREATE TABLE IF NOT EXISTS revenue_daily (
+    day DATE PRIMARY KEY,
+    billed_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    invoices_issued BIGINT NOT NULL DEFAULT 0,
+    payments_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payments_count BIGINT NOT NULL DEFAULT 0,
+    paid_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    invoices_paid BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS revenue_daily_category (
+    day DATE NOT NULL,
+    category VARCHAR(30) NOT NULL,
+    billed_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, category)
+);
+
+CREATE TABLE IF NOT EXISTS revenue_daily_mechanic (
+    day DATE NOT NULL,
+    mechanic_id BIGINT NOT NULL,
+    billed_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    paid_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, mechanic_id)
+);
+
+CREATE TABLE IF NOT EXISTS invoice_status_totals (
+    status VARCHAR(20) PRIMARY KEY,
+    invoice_count BIGINT NOT NULL DEFAULT 0,
+    total_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    paid_amount NUMERIC(14, 2) NOT NULL DEFAULT 0
+);
+
+-- Per-row failures of CSV imports (import_jobs), capped per job by ImportService
+CREATE TABLE IF NOT EXISTS import_row_errors (
+    job_id BIGINT NOT NULL,
+    row_number BIGINT NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    PRIMARY KEY (job_id, row_number)
+);
@@ -0,0 +1,30 @@
+package com.workshop.management;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the full application against PostgreSQL, since schema-postgresql.sql and the
+ * revenue rollups rely on Postgres-only SQL. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "outbox.relay.enabled=false",
+        "invoices.overdue-sweep.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    // Started once for all test classes, so the cached application context keeps a live database
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
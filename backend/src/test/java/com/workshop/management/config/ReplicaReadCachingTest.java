@@ -0,0 +1,95 @@
+package com.workshop.management.config;
+
+import com.workshop.management.PostgresIntegrationTest;
+import com.workshop.management.entity.Role;
+import com.workshop.management.entity.User;
+import com.workshop.management.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test database stands in for its own replica; routing only looks at the
+ * transaction, so read-only transactions take the replica path.
+ */
+@TestPropertySource(properties = {
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.urls=${spring.datasource.url}"
+})
+class ReplicaReadCachingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Cache cache;
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+        String username = "replica-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .password("not-used")
+                .fullName("Replica Test")
+                .email(username + "@workshop.test")
+                .role(Role.MECHANIC)
+                .build());
+        cache.evictAllRegions();
+        statistics.clear();
+    }
+
+    @Test
+    void replicaReadsDoNotFillTheEntityCache() {
+        assertThat(transactionManager).isInstanceOf(ReplicaAwareTransactionManager.class);
+
+        // findById runs in a read-only transaction, which routing sends to the replica
+        userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+        assertThat(cache.containsEntity(User.class, user.getId())).isFalse();
+    }
+
+    @Test
+    void primaryReadsFillTheCachesThatReplicaReadsUse() {
+        ReadRouting.onPrimary(() -> userRepository.findById(user.getId())).orElseThrow();
+        assertThat(cache.containsEntity(User.class, user.getId())).isTrue();
+
+        statistics.clear();
+        userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void authStateQueryIsCachedFromThePrimary() {
+        ReadRouting.onPrimary(() -> userRepository.findAuthStateById(user.getId())).orElseThrow();
+        assertThat(statistics.getQueryCachePutCount()).isEqualTo(1);
+
+        statistics.clear();
+        ReadRouting.onPrimary(() -> userRepository.findAuthStateById(user.getId())).orElseThrow();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
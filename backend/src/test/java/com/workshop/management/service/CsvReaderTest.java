@@ -0,0 +1,67 @@
+package com.workshop.management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldKeepsCommas() throws IOException {
+        assertThat(read("name,address\nAnn,\"12 Main St, Springfield\"\n")).containsExactly(
+                List.of("name", "address"),
+                List.of("Ann", "12 Main St, Springfield"));
+    }
+
+    @Test
+    void doubledQuoteIsOneQuote() throws IOException {
+        assertThat(read("note\n\"She said \"\"hi\"\"\"\n\"\"\"\"\n")).containsExactly(
+                List.of("note"),
+                List.of("She said \"hi\""),
+                List.of("\""));
+    }
+
+    @Test
+    void quotedFieldKeepsLineBreaks() throws IOException {
+        assertThat(read("id,note\r\n1,\"first\r\nsecond\nthird\"\r\n2,plain\r\n")).containsExactly(
+                List.of("id", "note"),
+                List.of("1", "first\r\nsecond\nthird"),
+                List.of("2", "plain"));
+    }
+
+    @Test
+    void byteOrderMarkIsDroppedOnlyAtStartOfInput() throws IOException {
+        assertThat(read("\uFEFFfirst_name,last_name\n\uFEFFAnn,Lee\n")).containsExactly(
+                List.of("first_name", "last_name"),
+                List.of("\uFEFFAnn", "Lee"));
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        assertThat(read("a,b\n1,2\n3,")).containsExactly(
+                List.of("a", "b"),
+                List.of("1", "2"),
+                List.of("3", ""));
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertThat(read("")).isEmpty();
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
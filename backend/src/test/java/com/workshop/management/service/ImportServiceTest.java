@@ -0,0 +1,119 @@
+package com.workshop.management.service;
+
+import com.workshop.management.PostgresIntegrationTest;
+import com.workshop.management.dto.ImportJobDTO;
+import com.workshop.management.entity.ImportStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Two rows per batch, so an upload cut short leaves some batches committed and some not
+@TestPropertySource(properties = "imports.batch-size=2")
+class ImportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resumedImportContinuesAfterLastCommittedBatch() {
+        String lastName = "Import-" + UUID.randomUUID();
+        String phonePrefix = "9" + ThreadLocalRandom.current().nextInt(1_000_000, 10_000_000);
+        String header = "first_name,last_name,email,phone\n";
+        String[] rows = {
+                customer("Ann", lastName, phonePrefix + "1"),
+                customer("Ben", lastName, phonePrefix + "2"),
+                "Cat," + lastName + ",not-an-email," + phonePrefix + "3\n",
+                customer("Dan", lastName, phonePrefix + "4"),
+                customer("Eve", lastName, phonePrefix + "1"),
+                customer("Fay", lastName, phonePrefix + "6"),
+                customer("Gus", lastName, phonePrefix + "7")
+        };
+        byte[] file = (header + String.join("", rows)).getBytes(StandardCharsets.UTF_8);
+        int firstFiveRows = (header + String.join("", Arrays.copyOf(rows, 5)))
+                .getBytes(StandardCharsets.UTF_8).length;
+
+        assertThatThrownBy(() -> importService.importCustomers(new FailingInputStream(file, firstFiveRows), null))
+                .isInstanceOf(UncheckedIOException.class);
+        Long jobId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM import_jobs", Long.class);
+        ImportJobDTO interrupted = importService.getJob(jobId);
+        // Rows 1-4 were committed in two batches; row 5 was parsed but never flushed
+        assertThat(interrupted.getStatus()).isEqualTo(ImportStatus.FAILED);
+        assertThat(interrupted.getRowsProcessed()).isEqualTo(4);
+        assertThat(interrupted.getInserted()).isEqualTo(3);
+        assertThat(interrupted.getFailed()).isEqualTo(1);
+        assertThat(customers(lastName)).isEqualTo(3);
+
+        ImportJobDTO resumed = importService.importCustomers(new ByteArrayInputStream(file), jobId);
+
+        assertThat(resumed.getId()).isEqualTo(jobId);
+        assertThat(resumed.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(resumed.getRowsProcessed()).isEqualTo(7);
+        assertThat(resumed.getInserted()).isEqualTo(5);
+        assertThat(resumed.getFailed()).isEqualTo(2);
+        assertThat(resumed.getErrors()).extracting(ImportJobDTO.RowError::getRow).containsExactly(3L, 5L);
+        assertThat(resumed.getErrors().get(1).getMessage()).isEqualTo("Phone number is already in use");
+        assertThat(customers(lastName)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT phone) FROM customers WHERE last_name = ?", Long.class, lastName))
+                .isEqualTo(5);
+    }
+
+    private static String customer(String firstName, String lastName, String phone) {
+        return firstName + "," + lastName + "," + firstName.toLowerCase(Locale.ROOT) + "-" + phone + "@workshop.test,"
+                + phone + "\n";
+    }
+
+    private long customers(String lastName) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE last_name = ?", Long.class, lastName);
+    }
+
+    /**
+     * Serves the first {@code limit} bytes and then fails, like a dropped upload.
+     */
+    private static final class FailingInputStream extends InputStream {
+
+        private final InputStream delegate;
+        private int remaining;
+
+        FailingInputStream(byte[] bytes, int limit) {
+            this.delegate = new ByteArrayInputStream(bytes, 0, limit);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Connection reset");
+            }
+            remaining--;
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Connection reset");
+            }
+            int read = delegate.read(buffer, offset, Math.min(length, remaining));
+            remaining -= read;
+            return read;
+        }
+    }
+}
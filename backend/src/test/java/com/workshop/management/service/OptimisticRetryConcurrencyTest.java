@@ -0,0 +1,157 @@
+package com.workshop.management.service;
+
+import com.workshop.management.PostgresIntegrationTest;
+import com.workshop.management.entity.Customer;
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.Vehicle;
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.entity.WorkOrderStatus;
+import com.workshop.management.exception.BadRequestException;
+import com.workshop.management.repository.CustomerRepository;
+import com.workshop.management.repository.InvoiceRepository;
+import com.workshop.management.repository.VehicleRepository;
+import com.workshop.management.repository.WorkOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent writers to one row, none sending a version: every call that returns
+ * must have landed exactly once, and every other call must have failed cleanly.
+ */
+class OptimisticRetryConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int CALLS = 24;
+    private static final BigDecimal PAYMENT = new BigDecimal("1.00");
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private WorkOrderService workOrderService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private WorkOrderRepository workOrderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void createVehicle() {
+        Customer customer = customerRepository.save(Customer.builder()
+                .firstName("Concurrent")
+                .lastName("Writer")
+                .phone("555-0101")
+                .build());
+        vehicle = vehicleRepository.save(Vehicle.builder()
+                .make("Honda")
+                .model("Civic")
+                .year(2020)
+                .customer(customer)
+                .build());
+    }
+
+    @Test
+    void concurrentPaymentsAreNeitherLostNorDoubled() throws InterruptedException {
+        WorkOrder workOrder = createWorkOrder(WorkOrderStatus.COMPLETED);
+        Long invoiceId = invoiceService.createInvoice(workOrder.getId()).getId();
+        Invoice before = invoiceRepository.findById(invoiceId).orElseThrow();
+
+        List<Runnable> calls = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            calls.add(() -> invoiceService.recordPayment(invoiceId, PAYMENT, null));
+        }
+        Outcome outcome = runConcurrently(calls);
+
+        assertThat(outcome.failures()).allMatch(OptimisticLockingFailureException.class::isInstance);
+        assertThat(outcome.successes()).isPositive();
+        Invoice after = invoiceRepository.findById(invoiceId).orElseThrow();
+        assertThat(after.getPaidAmount())
+                .isEqualByComparingTo(PAYMENT.multiply(BigDecimal.valueOf(outcome.successes())));
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + outcome.successes());
+    }
+
+    @Test
+    void concurrentStatusChangesAreNeitherLostNorDoubled() throws InterruptedException {
+        WorkOrder workOrder = createWorkOrder(WorkOrderStatus.IN_PROGRESS);
+        Long workOrderId = workOrder.getId();
+        Long versionBefore = workOrderRepository.findById(workOrderId).orElseThrow().getVersion();
+
+        // Alternating targets, so most calls are valid whichever state the retry sees
+        List<Runnable> calls = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            WorkOrderStatus target = i % 2 == 0 ? WorkOrderStatus.WAITING_FOR_PARTS : WorkOrderStatus.IN_PROGRESS;
+            calls.add(() -> workOrderService.updateStatus(workOrderId, target, null));
+        }
+        Outcome outcome = runConcurrently(calls);
+
+        // A retry that finds the order already in its target status is rejected as a no-op transition
+        assertThat(outcome.failures()).allMatch(e ->
+                e instanceof OptimisticLockingFailureException || e instanceof BadRequestException);
+        assertThat(outcome.successes()).isPositive();
+        WorkOrder after = workOrderRepository.findById(workOrderId).orElseThrow();
+        assertThat(after.getVersion()).isEqualTo(versionBefore + outcome.successes());
+    }
+
+    private WorkOrder createWorkOrder(WorkOrderStatus status) {
+        return workOrderRepository.save(WorkOrder.builder()
+                .orderNumber("WO-TEST-" + UUID.randomUUID())
+                .vehicle(vehicle)
+                .status(status)
+                .description("Concurrent writers")
+                .laborCost(new BigDecimal("100.00"))
+                .build());
+    }
+
+    private Outcome runConcurrently(List<Runnable> calls) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        try {
+            for (Runnable call : calls) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        call.run();
+                        successes.incrementAndGet();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Outcome(successes.get(), failures);
+    }
+
+    private record Outcome(int successes, List<Throwable> failures) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.workshop.management.service;
+
+import com.workshop.management.PostgresIntegrationTest;
+import com.workshop.management.dto.PaymentBatchResultDTO;
+import com.workshop.management.dto.PaymentBatchResultDTO.LineResult;
+import com.workshop.management.dto.PaymentBatchResultDTO.Outcome;
+import com.workshop.management.dto.PaymentLineDTO;
+import com.workshop.management.entity.Customer;
+import com.workshop.management.entity.Invoice;
+import com.workshop.management.entity.InvoiceStatus;
+import com.workshop.management.entity.Vehicle;
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.entity.WorkOrderStatus;
+import com.workshop.management.repository.CustomerRepository;
+import com.workshop.management.repository.InvoiceRepository;
+import com.workshop.management.repository.VehicleRepository;
+import com.workshop.management.repository.WorkOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentBatchServiceTest extends PostgresIntegrationTest {
+
+    // Labor of 100.00 plus 8.25% tax
+    private static final BigDecimal INVOICE_TOTAL = new BigDecimal("108.25");
+
+    @Autowired
+    private PaymentBatchService paymentBatchService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private WorkOrderRepository workOrderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private Invoice invoice;
+    private String referencePrefix;
+
+    @BeforeEach
+    void createInvoice() {
+        Customer customer = customerRepository.save(Customer.builder()
+                .firstName("Batch")
+                .lastName("Payer")
+                .phone("555-0102")
+                .build());
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder()
+                .make("Ford")
+                .model("Focus")
+                .year(2019)
+                .customer(customer)
+                .build());
+        WorkOrder workOrder = workOrderRepository.save(WorkOrder.builder()
+                .orderNumber("WO-TEST-" + UUID.randomUUID())
+                .vehicle(vehicle)
+                .status(WorkOrderStatus.COMPLETED)
+                .description("Payment batch")
+                .laborCost(new BigDecimal("100.00"))
+                .build());
+        invoice = invoiceRepository.findById(invoiceService.createInvoice(workOrder.getId()).getId()).orElseThrow();
+        assertThat(invoice.getTotalAmount()).isEqualByComparingTo(INVOICE_TOTAL);
+        referencePrefix = "REF-" + UUID.randomUUID() + "-";
+    }
+
+    @Test
+    void repeatedReferenceWithinFileIsAppliedOnce() {
+        PaymentBatchResultDTO report = applyCsv(
+                line("10.00", "A"),
+                line("10.00", "A"),
+                line("5.00", "B"));
+
+        assertThat(outcomes(report)).containsExactly(Outcome.APPLIED, Outcome.DUPLICATE, Outcome.APPLIED);
+        assertThat(report.getResults().get(1).getMessage()).isEqualTo("Same reference as line 1");
+        assertThat(report.getApplied()).isEqualTo(2);
+        assertThat(report.getDuplicates()).isEqualTo(1);
+        assertThat(report.getAppliedAmount()).isEqualByComparingTo("15.00");
+        assertThat(paidAmount()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void resentFileIsReportedAsDuplicate() {
+        String[] lines = { line("20.00", "A"), line("30.00", "B") };
+        PaymentBatchResultDTO first = applyCsv(lines);
+        Long versionAfterFirst = invoiceRepository.findById(invoice.getId()).orElseThrow().getVersion();
+
+        PaymentBatchResultDTO second = applyCsv(lines);
+
+        assertThat(outcomes(first)).containsOnly(Outcome.APPLIED);
+        assertThat(outcomes(second)).containsOnly(Outcome.DUPLICATE);
+        assertThat(second.getResults()).extracting(LineResult::getMessage)
+                .containsOnly("Payment reference was already recorded");
+        assertThat(second.getApplied()).isZero();
+        assertThat(second.getAppliedAmount()).isEqualByComparingTo("0");
+        Invoice after = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertThat(after.getPaidAmount()).isEqualByComparingTo("50.00");
+        assertThat(after.getVersion()).isEqualTo(versionAfterFirst);
+    }
+
+    @Test
+    void linesForOneInvoiceSeeEachOthersBalance() {
+        PaymentBatchResultDTO report = paymentBatchService.apply(List.of(
+                payment("50.00", "A"),
+                payment("50.00", "B"),
+                payment("8.25", "C")));
+
+        assertThat(outcomes(report)).containsOnly(Outcome.APPLIED);
+        assertThat(report.getResults()).extracting(LineResult::getBalanceDue)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("58.25"), new BigDecimal("8.25"), BigDecimal.ZERO);
+        assertThat(report.getResults()).extracting(LineResult::getInvoiceStatus)
+                .containsExactly(InvoiceStatus.PARTIALLY_PAID, InvoiceStatus.PARTIALLY_PAID, InvoiceStatus.PAID);
+        Invoice after = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertThat(after.getPaidAmount()).isEqualByComparingTo(INVOICE_TOTAL);
+        assertThat(after.getStatus()).isEqualTo(InvoiceStatus.PAID);
+    }
+
+    @Test
+    void lineThatWouldOverpayIsRejected() {
+        PaymentBatchResultDTO report = applyCsv(
+                line("100.00", "A"),
+                line("20.00", "B"));
+
+        assertThat(outcomes(report)).containsExactly(Outcome.APPLIED, Outcome.REJECTED);
+        LineResult rejected = report.getResults().get(1);
+        assertThat(rejected.getMessage()).isEqualTo("Payment amount exceeds balance due");
+        assertThat(rejected.getBalanceDue()).isEqualByComparingTo("8.25");
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(paidAmount()).isEqualByComparingTo("100.00");
+    }
+
+    private PaymentBatchResultDTO applyCsv(String... lines) {
+        String csv = "invoice_number,amount,reference\n" + String.join("\n", lines) + "\n";
+        return paymentBatchService.applyCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String line(String amount, String reference) {
+        return invoice.getInvoiceNumber() + "," + amount + "," + referencePrefix + reference;
+    }
+
+    private PaymentLineDTO payment(String amount, String reference) {
+        return PaymentLineDTO.builder()
+                .invoiceNumber(invoice.getInvoiceNumber())
+                .amount(new BigDecimal(amount))
+                .reference(referencePrefix + reference)
+                .build();
+    }
+
+    private BigDecimal paidAmount() {
+        return invoiceRepository.findById(invoice.getId()).orElseThrow().getPaidAmount();
+    }
+
+    private static List<Outcome> outcomes(PaymentBatchResultDTO report) {
+        return report.getResults().stream().map(LineResult::getOutcome).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.workshop.management.service;
+
+import com.workshop.management.PostgresIntegrationTest;
+import com.workshop.management.dto.ServiceItemDTO;
+import com.workshop.management.dto.UserDTO;
+import com.workshop.management.entity.Role;
+import com.workshop.management.entity.ServiceCategory;
+import com.workshop.management.entity.ServiceItem;
+import com.workshop.management.entity.User;
+import com.workshop.management.repository.ServiceItemRepository;
+import com.workshop.management.repository.UserAuthState;
+import com.workshop.management.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes through the services must be visible to the next read, including reads
+ * answered from the second-level and query caches.
+ */
+class SecondLevelCacheWriteThroughTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ServiceItemService serviceItemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceItemRepository serviceItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String username = "cache-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .password("not-used")
+                .fullName("Cache Test")
+                .email(username + "@workshop.test")
+                .role(Role.RECEPTIONIST)
+                .build());
+    }
+
+    @Test
+    void userUpdateIsVisibleToCachedQueries() {
+        warmUserQueries();
+
+        UserDTO update = UserService.toDTO(user);
+        update.setFullName("Cache Test Updated");
+        update.setRole(Role.MECHANIC);
+        userService.updateUser(user.getId(), update);
+
+        UserAuthState state = userRepository.findAuthStateById(user.getId()).orElseThrow();
+        assertThat(state.getRole()).isEqualTo(Role.MECHANIC);
+        assertThat(state.getEnabled()).isTrue();
+        User reloaded = userRepository.findByUsername(user.getUsername()).orElseThrow();
+        assertThat(reloaded.getFullName()).isEqualTo("Cache Test Updated");
+        assertThat(reloaded.getRole()).isEqualTo(Role.MECHANIC);
+        assertThat(userService.getUserById(user.getId()).getRole()).isEqualTo(Role.MECHANIC);
+    }
+
+    @Test
+    void disabledUserIsVisibleToCachedQueries() {
+        warmUserQueries();
+
+        userService.disableUser(user.getId());
+
+        assertThat(userRepository.findAuthStateById(user.getId()).orElseThrow().getEnabled()).isFalse();
+        assertThat(userRepository.findByUsername(user.getUsername()).orElseThrow().isEnabled()).isFalse();
+        assertThat(userService.getUserById(user.getId()).isEnabled()).isFalse();
+    }
+
+    @Test
+    void serviceItemUpdateIsVisibleToNextRead() {
+        ServiceItemDTO created = serviceItemService.createService(ServiceItemDTO.builder()
+                .name("Cache test service")
+                .basePrice(new BigDecimal("40.00"))
+                .estimatedMinutes(30)
+                .category(ServiceCategory.GENERAL)
+                .active(true)
+                .build());
+        serviceItemRepository.findById(created.getId()).orElseThrow();
+        statistics.clear();
+        serviceItemRepository.findById(created.getId()).orElseThrow();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+
+        created.setName("Cache test service updated");
+        created.setBasePrice(new BigDecimal("55.00"));
+        serviceItemService.updateService(created.getId(), created);
+
+        ServiceItem reloaded = serviceItemRepository.findById(created.getId()).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Cache test service updated");
+        assertThat(reloaded.getBasePrice()).isEqualByComparingTo("55.00");
+        ServiceItemDTO fromCatalog = serviceItemService.getServiceById(created.getId());
+        assertThat(fromCatalog.getName()).isEqualTo("Cache test service updated");
+        assertThat(fromCatalog.getBasePrice()).isEqualByComparingTo("55.00");
+    }
+
+    /** Runs each cached query twice, so the reads after the update would hit the caches if nothing evicted them. */
+    private void warmUserQueries() {
+        userRepository.findAuthStateById(user.getId()).orElseThrow();
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+        statistics.clear();
+        userRepository.findAuthStateById(user.getId()).orElseThrow();
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+}
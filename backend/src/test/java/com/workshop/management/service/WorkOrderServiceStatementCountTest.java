@@ -0,0 +1,119 @@
+package com.workshop.management.service;
+
+import com.workshop.management.PostgresIntegrationTest;
+import com.workshop.management.dto.WorkOrderDTO;
+import com.workshop.management.entity.Customer;
+import com.workshop.management.entity.ServiceItem;
+import com.workshop.management.entity.User;
+import com.workshop.management.entity.Vehicle;
+import com.workshop.management.entity.WorkOrder;
+import com.workshop.management.repository.CustomerRepository;
+import com.workshop.management.repository.ServiceItemRepository;
+import com.workshop.management.repository.UserRepository;
+import com.workshop.management.repository.VehicleRepository;
+import com.workshop.management.repository.WorkOrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkOrderServiceStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int ORDERS = 3;
+    private static final int LINES_PER_ORDER = 2;
+
+    @Autowired
+    private WorkOrderService workOrderService;
+
+    @Autowired
+    private WorkOrderRepository workOrderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ServiceItemRepository serviceItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> workOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    void createWorkOrders() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User mechanic = userRepository.findByUsername("mechanic").orElseThrow();
+        List<ServiceItem> items = serviceItemRepository.findAll().subList(0, LINES_PER_ORDER);
+        Customer customer = customerRepository.save(Customer.builder()
+                .firstName("Statement")
+                .lastName("Count")
+                .phone("555-0100")
+                .build());
+
+        for (int i = 0; i < ORDERS; i++) {
+            Vehicle vehicle = vehicleRepository.save(Vehicle.builder()
+                    .make("Toyota")
+                    .model("Corolla")
+                    .year(2018)
+                    .customer(customer)
+                    .build());
+            WorkOrder workOrder = WorkOrder.builder()
+                    .orderNumber("WO-TEST-" + UUID.randomUUID())
+                    .vehicle(vehicle)
+                    .assignedMechanic(mechanic)
+                    .description("Statement count " + i)
+                    .build();
+            for (ServiceItem item : items) {
+                workOrder.addService(com.workshop.management.entity.WorkOrderService.builder()
+                        .serviceItem(item)
+                        .price(item.getBasePrice())
+                        .build());
+            }
+            workOrderIds.add(workOrderRepository.save(workOrder).getId());
+        }
+    }
+
+    @Test
+    void detailLoadsOrderAndLineItemsInOneStatement() {
+        statistics.clear();
+
+        WorkOrderDTO dto = workOrderService.getWorkOrderById(workOrderIds.get(0));
+
+        assertThat(dto.getServices()).hasSize(LINES_PER_ORDER);
+        assertThat(dto.getCustomerName()).isEqualTo("Statement Count");
+        assertThat(dto.getAssignedMechanicName()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listLoadsLineItemsForAllOrdersInOneStatement() {
+        statistics.clear();
+
+        List<WorkOrderDTO> dtos = workOrderService.getRecentWorkOrders(ORDERS);
+
+        assertThat(dtos).extracting(WorkOrderDTO::getId).containsExactlyInAnyOrderElementsOf(workOrderIds);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.getServices()).hasSize(LINES_PER_ORDER);
+            assertThat(dto.getVehicleInfo()).isNotNull();
+            assertThat(dto.getAssignedMechanicName()).isNotNull();
+        });
+        // One statement for the orders with their vehicle, customer and mechanic, one for every line item
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
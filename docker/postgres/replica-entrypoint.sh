@@ -0,0 +1,16 @@
+#!/bin/sh
+# Clones the primary on first start, then runs as a hot standby streaming from it.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until PGPASSWORD="$REPLICATION_PASSWORD" pg_basebackup \
+            --host="$PRIMARY_HOST" --username="$REPLICATION_USER" \
+            --pgdata="$PGDATA" --wal-method=stream --write-recovery-conf --progress; do
+        echo "Waiting for the primary to accept replication connections..."
+        rm -rf "${PGDATA:?}"/*
+        sleep 2
+    done
+    chmod 0700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on
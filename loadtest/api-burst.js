@@ -0,0 +1,63 @@
+// Burst load against read-heavy API endpoints, used to compare the platform-thread
+// and virtual-thread modes of the backend under the same arrival rate.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e RATE=400 \
+//       --summary-export=results/platform.json loadtest/api-burst.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '400', 10);
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'admin123';
+
+export const options = {
+    scenarios: {
+        burst: {
+            executor: 'ramping-arrival-rate',
+            startRate: Math.floor(RATE / 10),
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: RATE, duration: '30s' },
+                { target: RATE, duration: '2m' },
+                { target: RATE * 2, duration: '15s' },
+                { target: RATE * 2, duration: '45s' },
+                { target: 0, duration: '15s' },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<500', 'p(99)<1500'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+const ENDPOINTS = [
+    '/api/workorders?page=0&size=20',
+    '/api/workorders/upcoming',
+    '/api/customers?page=0&size=20',
+    '/api/vehicles?page=0&size=20',
+    '/api/invoices?page=0&size=20',
+    '/api/services',
+    '/api/dashboard',
+];
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'logged in': (r) => r.status === 200 });
+    return { token: res.json('token') };
+}
+
+export default function (data) {
+    const path = ENDPOINTS[Math.floor(Math.random() * ENDPOINTS.length)];
+    const res = http.get(`${BASE_URL}${path}`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+        tags: { name: path.split('?')[0] },
+    });
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,77 @@
+// Fires many small payments at one invoice in parallel and checks afterwards that
+// none of them was lost: every accepted payment bumps the invoice version once,
+// so the paid amount must have grown by exactly AMOUNT per version.
+//
+// Needs a SENT or PARTIALLY_PAID invoice with a balance of at least PAYMENTS * AMOUNT.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e INVOICE_ID=123 \
+//       -e PAYMENTS=200 -e VUS=50 loadtest/concurrent-payments.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'admin123';
+const INVOICE_ID = __ENV.INVOICE_ID;
+const PAYMENTS = parseInt(__ENV.PAYMENTS || '200', 10);
+const VUS = parseInt(__ENV.VUS || '50', 10);
+const AMOUNT = __ENV.AMOUNT || '0.01';
+
+const accepted = new Rate('payments_accepted');
+
+export const options = {
+    scenarios: {
+        payments: {
+            executor: 'shared-iterations',
+            vus: VUS,
+            iterations: PAYMENTS,
+            maxDuration: '2m',
+        },
+    },
+    thresholds: {
+        // Conflicts that outlast the server-side retries come back as 409
+        payments_accepted: ['rate>0.95'],
+        'checks{check:no lost updates}': ['rate==1'],
+    },
+};
+
+function headers(token) {
+    return { Authorization: `Bearer ${token}`, 'Content-Type': 'application/json' };
+}
+
+function cents(value) {
+    return Math.round(parseFloat(value) * 100);
+}
+
+export function setup() {
+    if (!INVOICE_ID) {
+        throw new Error('INVOICE_ID is required');
+    }
+    const login = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const token = login.json('token');
+    const invoice = http.get(`${BASE_URL}/api/invoices/${INVOICE_ID}`, { headers: headers(token) }).json();
+    if (cents(invoice.balanceDue) < PAYMENTS * cents(AMOUNT)) {
+        throw new Error(`Invoice ${INVOICE_ID} has a balance of ${invoice.balanceDue}, `
+            + `need ${PAYMENTS} x ${AMOUNT}`);
+    }
+    return { token, paidAmount: invoice.paidAmount, version: invoice.version };
+}
+
+export default function (data) {
+    const res = http.post(`${BASE_URL}/api/invoices/${INVOICE_ID}/payment`,
+        JSON.stringify({ amount: AMOUNT }),
+        { headers: headers(data.token), tags: { name: '/api/invoices/{id}/payment' } });
+    accepted.add(res.status === 200);
+    check(res, { 'payment accepted or conflict': (r) => r.status === 200 || r.status === 409 });
+}
+
+export function teardown(data) {
+    const invoice = http.get(`${BASE_URL}/api/invoices/${INVOICE_ID}`, { headers: headers(data.token) }).json();
+    const committed = invoice.version - data.version;
+    const paid = cents(invoice.paidAmount) - cents(data.paidAmount);
+    console.log(`${committed} payments committed of ${PAYMENTS}, paid amount grew by ${paid / 100}`);
+    check(null, { 'no lost updates': () => paid === committed * cents(AMOUNT) });
+}